@@ -0,0 +1,31 @@
+import java.util.List;
+
+/**
+ * A change to the {@link StudentRegistry}, as published on its {@link ChangeLog}.
+ * <p>
+ * Events carry the values after the change (not just the key), so a
+ * consumer can maintain its own index, cache or replica from the stream
+ * alone. Events about the same student or course appear in the order the
+ * changes were applied.
+ */
+public sealed interface ChangeEvent {
+    /** @return the event's position in the change log. */
+    long sequence();
+
+    record StudentAdded(long sequence, String studentId, String name, int age) implements ChangeEvent {}
+
+    record StudentUpdated(long sequence, String studentId, String name, int age) implements ChangeEvent {}
+
+    record CourseAdded(long sequence, String courseCode, String name, int maxCapacity) implements ChangeEvent {}
+
+    record CourseUpdated(long sequence, String courseCode, String name, int maxCapacity) implements ChangeEvent {}
+
+    record Enrolled(long sequence, String studentId, String courseCode) implements ChangeEvent {}
+
+    record GradeAssigned(long sequence, String studentId, String courseCode, double grade) implements ChangeEvent {}
+
+    record PrerequisitesChanged(long sequence, String courseCode, List<String> prerequisites) implements ChangeEvent {}
+
+    /** @param hoursOfWeek see {@link CourseCatalog#hourOfWeek}. */
+    record MeetingHoursChanged(long sequence, String courseCode, List<Integer> hoursOfWeek) implements ChangeEvent {}
+}
@@ -0,0 +1,157 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded, lock-free, multi-producer/multi-consumer ring buffer of events
+ * numbered by a global sequence (0, 1, 2, ...).
+ * <p>
+ * Producers claim a sequence with one atomic increment and never wait for
+ * consumers: once the ring wraps, the oldest events are overwritten. Each
+ * consumer owns a {@link Cursor} and reads at its own pace, starting from any
+ * sequence still in the ring, so a new subscriber can replay recent history
+ * and then follow live. A consumer that falls more than {@code capacity}
+ * events behind gets an {@link OverrunException} instead of silently
+ * skipping events, and can rebuild from a full scan before re-subscribing.
+ * <p>
+ * Each slot has a stamp of {@code 2 * sequence + 1} once published and
+ * {@code 2 * sequence} while being written. Readers check the stamp before
+ * and after reading the event, so they never return a half-replaced slot.
+ */
+public final class ChangeLog<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> events;
+    private final AtomicLongArray stamps;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /**
+     * Thrown when a cursor's next event has already been overwritten.
+     */
+    public static final class OverrunException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final long requested;
+        private final long oldestAvailable;
+
+        OverrunException(long requested, long oldestAvailable) {
+            super("Change " + requested + " was overwritten; oldest available is " + oldestAvailable);
+            this.requested = requested;
+            this.oldestAvailable = oldestAvailable;
+        }
+
+        public long getRequested() { return requested; }
+        public long getOldestAvailable() { return oldestAvailable; }
+    }
+
+    /**
+     * @param capacity number of events retained; rounded up to a power of two.
+     */
+    public ChangeLog(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.events = new AtomicReferenceArray<>(this.capacity);
+        this.stamps = new AtomicLongArray(this.capacity);
+        // Slot i starts out "published" for the virtual sequence i - capacity, so the first lap needs no special case
+        for (int i = 0; i < this.capacity; i++) stamps.set(i, published(i - this.capacity));
+    }
+
+    private static long published(long sequence) { return 2 * sequence + 1; }
+    private static long writing(long sequence) { return 2 * sequence; }
+
+    // --- Producers ---
+
+    /**
+     * Claims the next sequence and publishes the event built for it.
+     * Callers that need events in the same order as their state changes
+     * publish while holding the lock that orders those changes.
+     * @return the event's sequence.
+     */
+    public long publish(LongFunction<? extends E> eventForSequence) {
+        long sequence = nextSequence.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        // Only if producers lap the ring while a write is in flight: let the previous occupant finish first
+        while (stamps.get(slot) != published(sequence - capacity)) Thread.onSpinWait();
+        stamps.set(slot, writing(sequence));
+        events.set(slot, eventForSequence.apply(sequence));
+        stamps.set(slot, published(sequence));
+        return sequence;
+    }
+
+    // --- Consumers ---
+
+    /** @return the sequence the next published event will get (the number of events so far). */
+    public long nextSequence() { return nextSequence.get(); }
+
+    /** @return the oldest sequence a new cursor can still replay from. */
+    public long oldestSequence() { return Math.max(0, nextSequence.get() - capacity); }
+
+    public int capacity() { return capacity; }
+
+    /**
+     * @param fromSequence first event to deliver; use {@link #oldestSequence()} to replay
+     *        everything retained, or {@link #nextSequence()} to follow only new events.
+     */
+    public Cursor subscribe(long fromSequence) {
+        if (fromSequence < 0) throw new IllegalArgumentException("Negative sequence: " + fromSequence);
+        return new Cursor(fromSequence);
+    }
+
+    /**
+     * A single consumer's position in the log. Not thread-safe: one cursor per consumer thread.
+     */
+    public final class Cursor {
+        private long next;
+
+        private Cursor(long next) {
+            this.next = next;
+        }
+
+        /** @return the sequence of the event {@link #poll()} returns next. */
+        public long position() { return next; }
+
+        /** Moves the cursor, e.g. back for a replay or forward after an overrun. */
+        public void seek(long sequence) {
+            if (sequence < 0) throw new IllegalArgumentException("Negative sequence: " + sequence);
+            next = sequence;
+        }
+
+        /**
+         * @return the next event, or null if it has not been published yet.
+         * @throws OverrunException if it has already been overwritten.
+         */
+        public E poll() {
+            int slot = (int) (next & mask);
+            long before = stamps.get(slot);
+            long sequence = before >> 1;
+            if (sequence < next || (sequence == next && before != published(next))) return null;
+            if (sequence == next) {
+                E event = events.get(slot);
+                if (stamps.get(slot) == before) {
+                    next++;
+                    return event;
+                }
+            }
+            throw new OverrunException(next, oldestSequence());
+        }
+
+        /**
+         * Hands up to {@code max} available events to {@code consumer}, in sequence order.
+         * @return the number of events delivered.
+         * @throws OverrunException if the cursor fell behind the retained window.
+         */
+        public int drain(Consumer<? super E> consumer, int max) {
+            int delivered = 0;
+            E event;
+            while (delivered < max && (event = poll()) != null) {
+                consumer.accept(event);
+                delivered++;
+            }
+            return delivered;
+        }
+    }
+}
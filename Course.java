@@ -0,0 +1,56 @@
+/**
+ * The Course class is a handle over a course code in the shared registry.
+ * Capacity is tracked per course by the registry, and the system-wide
+ * enrollment total is available through a static method.
+ */
+class Course {
+    private final StudentRegistry registry;
+    private final String code;
+
+    /**
+     * Constructor for the Course class.
+     * @param code The code of a course registered in {@code registry}.
+     */
+    Course(StudentRegistry registry, String code) {
+        this.registry = registry;
+        this.code = code;
+    }
+
+    private CourseRecord record() {
+        return registry.course(code);
+    }
+
+    // --- Public Getter Methods ---
+    public String getCourseCode() {
+        return code;
+    }
+
+    public String getName() {
+        return record().getName();
+    }
+
+    public int getMaxCapacity() {
+        return record().getMaxCapacity();
+    }
+
+    public int getEnrolledCount() {
+        return record().getEnrolledCount();
+    }
+    
+    // --- Public Setter Methods for Updates ---
+    public void setName(String name) {
+        registry.renameCourse(getCourseCode(), name);
+    }
+
+    public void setMaxCapacity(int maxCapacity) {
+        registry.setCourseCapacity(getCourseCode(), maxCapacity);
+    }
+
+    /**
+     * Static method to retrieve the total number of enrolled students across all courses.
+     * @return The system's total enrollment count.
+     */
+    public static int getTotalEnrolledStudents() {
+        return CourseManagement.registry().totalEnrollments();
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Course metadata used by {@link StudentRegistry} at enrollment time:
+ * prerequisites and weekly meeting times, both stored as bitsets.
+ * <p>
+ * Prerequisite sets are indexed by course slot and kept as their transitive
+ * closure, so "is the student enrolled in everything this course builds on?"
+ * is a word-wide {@code closure & ~enrolled} test. A prerequisite counts as
+ * met once the student is enrolled in it, graded or not: registration for a
+ * term happens before any of its grades exist. Meeting times are a bitmap of
+ * the 168 hours of the week (three longs), so a schedule clash is a
+ * three-word AND against the student's timetable.
+ * <p>
+ * All data lives in an immutable {@link Snapshot} that is swapped on change:
+ * the enrollment path reads one volatile reference and never locks. When a
+ * course's prerequisites change, only that course and the courses whose
+ * closure contains it are recomputed.
+ */
+public final class CourseCatalog {
+    public static final int HOURS_PER_WEEK = 7 * 24;
+    static final int TIMETABLE_WORDS = (HOURS_PER_WEEK + 63) / 64;
+    private static final String DAYS = "MONTUEWEDTHUFRISATSUN";
+
+    /**
+     * Immutable catalog state; arrays are indexed by course slot.
+     */
+    static final class Snapshot {
+        final long[][] directPrerequisites;
+        final long[][] prerequisiteClosure;
+        final long[][] meetings;
+
+        Snapshot(long[][] directPrerequisites, long[][] prerequisiteClosure, long[][] meetings) {
+            this.directPrerequisites = directPrerequisites;
+            this.prerequisiteClosure = prerequisiteClosure;
+            this.meetings = meetings;
+        }
+
+        /** @return true if every transitive prerequisite of the course is set in {@code enrolled}. */
+        boolean prerequisitesMet(int courseSlot, long[] enrolled) {
+            if (courseSlot >= prerequisiteClosure.length) return true;
+            long[] required = prerequisiteClosure[courseSlot];
+            for (int w = 0; w < required.length; w++) {
+                long have = w < enrolled.length ? enrolled[w] : 0;
+                if ((required[w] & ~have) != 0) return false;
+            }
+            return true;
+        }
+
+        /** @return true if the course meets during any hour already in {@code timetable}. */
+        boolean clashes(int courseSlot, long[] timetable) {
+            if (courseSlot >= meetings.length) return false;
+            long[] hours = meetings[courseSlot];
+            for (int w = 0; w < TIMETABLE_WORDS; w++) {
+                if ((hours[w] & timetable[w]) != 0) return true;
+            }
+            return false;
+        }
+
+        long[] meetingsOf(int courseSlot) {
+            return courseSlot < meetings.length ? meetings[courseSlot] : new long[TIMETABLE_WORDS];
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0][], new long[0][], new long[0][]);
+
+    /**
+     * @param day 0 = Monday ... 6 = Sunday.
+     * @param hour 0-23.
+     * @return the bit index of that hour in a weekly timetable.
+     */
+    public static int hourOfWeek(int day, int hour) {
+        if (day < 0 || day > 6 || hour < 0 || hour > 23) throw new IllegalArgumentException("Invalid day/hour: " + day + "/" + hour);
+        return day * 24 + hour;
+    }
+
+    /**
+     * Parses a schedule such as {@code "MON 9-11, WED 14-15"} (end hour exclusive;
+     * {@code "FRI 10"} is a single hour) into hours of the week.
+     * @throws IllegalArgumentException if the text is malformed.
+     */
+    public static int[] parseHours(String schedule) {
+        List<Integer> hours = new ArrayList<>();
+        for (String part : schedule.split(",")) {
+            String[] dayAndRange = part.trim().split("\\s+");
+            if (dayAndRange.length != 2) throw new IllegalArgumentException("Expected DAY HOUR[-HOUR]: " + part.trim());
+            int day = DAYS.indexOf(dayAndRange[0].toUpperCase());
+            if (day < 0 || day % 3 != 0 || dayAndRange[0].length() != 3) throw new IllegalArgumentException("Unknown day: " + dayAndRange[0]);
+            String[] range = dayAndRange[1].split("-");
+            try {
+                int from = Integer.parseInt(range[0]);
+                int to = range.length > 1 ? Integer.parseInt(range[1]) : from + 1;
+                if (range.length > 2 || to <= from || to > 24) throw new IllegalArgumentException("Invalid hours: " + dayAndRange[1]);
+                for (int hour = from; hour < to; hour++) hours.add(hourOfWeek(day / 3, hour));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid hours: " + dayAndRange[1]);
+            }
+        }
+        return hours.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Makes room for a newly registered course slot (no prerequisites, no meetings).
+     */
+    synchronized void addCourse(int slot) {
+        Snapshot s = snapshot;
+        if (slot < s.meetings.length) return;
+        int words = wordsFor(slot + 1);
+        snapshot = new Snapshot(grow(s.directPrerequisites, slot + 1, words),
+                                grow(s.prerequisiteClosure, slot + 1, words),
+                                grow(s.meetings, slot + 1, TIMETABLE_WORDS));
+    }
+
+    /**
+     * Replaces a course's direct prerequisites and incrementally rebuilds the closures.
+     * @return false (and leaves the catalog unchanged) if the change would create a cycle.
+     */
+    synchronized boolean setPrerequisites(int slot, int[] prerequisiteSlots) {
+        Snapshot s = snapshot;
+        int courses = s.meetings.length;
+        int words = wordsFor(courses);
+        long[][] direct = grow(s.directPrerequisites, courses, words);
+        long[][] closure = grow(s.prerequisiteClosure, courses, words);
+
+        long[] newDirect = new long[words];
+        for (int p : prerequisiteSlots) newDirect[p >>> 6] |= 1L << p;
+        direct[slot] = newDirect;
+
+        // Only the changed course and the courses that (transitively) require it can change
+        boolean[] affected = new boolean[courses];
+        for (int c = 0; c < courses; c++) {
+            affected[c] = c == slot || isSet(closure[c], slot);
+        }
+        long[][] rebuilt = closure.clone();
+        for (int c = 0; c < courses; c++) {
+            if (affected[c]) rebuilt[c] = null;
+        }
+        for (int c = 0; c < courses; c++) {
+            if (affected[c] && closureOf(c, direct, rebuilt, new boolean[courses]) == null) return false;
+        }
+        snapshot = new Snapshot(direct, rebuilt, s.meetings);
+        return true;
+    }
+
+    /**
+     * Replaces a course's weekly meeting hours (see {@link #hourOfWeek}).
+     */
+    synchronized void setMeetings(int slot, int[] hoursOfWeek) {
+        Snapshot s = snapshot;
+        long[] hours = new long[TIMETABLE_WORDS];
+        for (int h : hoursOfWeek) {
+            if (h < 0 || h >= HOURS_PER_WEEK) throw new IllegalArgumentException("Invalid hour of week: " + h);
+            hours[h >>> 6] |= 1L << h;
+        }
+        long[][] meetings = s.meetings.clone();
+        meetings[slot] = hours;
+        snapshot = new Snapshot(s.directPrerequisites, s.prerequisiteClosure, meetings);
+    }
+
+    /**
+     * Memoized DFS: closure(c) = union over direct prerequisites p of {p} + closure(p).
+     * @return null if a cycle through {@code c} is found.
+     */
+    private static long[] closureOf(int c, long[][] direct, long[][] closure, boolean[] onPath) {
+        if (closure[c] != null) return closure[c];
+        if (onPath[c]) return null;
+        onPath[c] = true;
+        long[] result = direct[c].clone();
+        for (int w = 0; w < direct[c].length; w++) {
+            long bits = direct[c][w];
+            while (bits != 0) {
+                int p = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long[] sub = closureOf(p, direct, closure, onPath);
+                if (sub == null) return null;
+                for (int i = 0; i < sub.length; i++) result[i] |= sub[i];
+            }
+        }
+        onPath[c] = false;
+        if (isSet(result, c)) return null;
+        closure[c] = result;
+        return result;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    private static int wordsFor(int courses) {
+        return Math.max(1, (courses + 63) >>> 6);
+    }
+
+    // Extends to `count` rows of at least `words` words each, copying existing bits
+    private static long[][] grow(long[][] rows, int count, int words) {
+        long[][] grown = new long[Math.max(count, rows.length)][];
+        for (int i = 0; i < grown.length; i++) {
+            grown[i] = i < rows.length ? Arrays.copyOf(rows[i], Math.max(words, rows[i].length)) : new long[words];
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,278 @@
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The CourseManagement class acts as the central facade for the console interface.
+ * All system data (courses, students, grades) lives in a private static
+ * {@link StudentRegistry}, the same store engine the Swing StudentManagementSystem uses,
+ * and public static methods perform all core operations.
+ */
+class CourseManagement {
+    // Private static registry ensures data is shared across the application and protected from external direct access.
+    // Runs in memory unless -Dregistry.spill.dir is set, in which case hot records are cached in front of a disk store.
+    private static final StudentRegistry registry = StudentRegistry.fromSystemProperties();
+    // Map: Student ID -> Overall Average Grade
+    private static final Map<String, Double> overallGrades = new ConcurrentHashMap<>(); 
+
+    // Hot-path instrumentation (see Metrics.java), resolved once
+    private static final Metrics.Counter enrollCount = Metrics.counter("course.enroll");
+    private static final Metrics.LatencyHistogram enrollLatency = Metrics.histogram("course.enroll.latency");
+    private static final Metrics.Counter gradeCount = Metrics.counter("course.grade");
+    private static final Metrics.LatencyHistogram gradeLatency = Metrics.histogram("course.grade.latency");
+    private static final Metrics.LatencyHistogram overallGradeLatency = Metrics.histogram("course.overallGrade.latency");
+    
+    static StudentRegistry registry() {
+        return registry;
+    }
+
+    private static Student student(String studentId) {
+        return registry.student(studentId) == null ? null : new Student(registry, studentId);
+    }
+
+    private static Course course(String courseCode) {
+        return registry.course(courseCode) == null ? null : new Course(registry, courseCode);
+    }
+
+    // --- Public Static Utility Methods ---
+    
+    /**
+     * Adds a new course to the system.
+     */
+    public static void addCourse(String courseCode, String name, int capacity) {
+        if (registry.addCourse(courseCode, name, capacity) == null) {
+            System.out.println("Error: Course code " + courseCode + " already exists.");
+            return;
+        }
+        System.out.println("Successfully added Course: " + name + " (" + courseCode + ")");
+    }
+
+    /**
+     * Adds a new course with prerequisites and weekly meeting hours. Nothing is
+     * added if any prerequisite is unknown.
+     * @param prerequisites codes of courses a student must be enrolled in first.
+     * @param meetingHours hours of the week the course meets (see {@link CourseCatalog#parseHours}).
+     */
+    public static void addCourse(String courseCode, String name, int capacity, List<String> prerequisites, int[] meetingHours) {
+        // Courses are never removed, so prerequisites that exist now still exist once the course is added
+        List<String> unknown = prerequisites.stream().filter(code -> registry.course(code) == null).collect(Collectors.toList());
+        if (!unknown.isEmpty() && registry.course(courseCode) == null) {
+            System.out.println("Error: Unknown prerequisite course(s): " + String.join(", ", unknown) + ". Course not added.");
+            return;
+        }
+        if (registry.addCourse(courseCode, name, capacity) == null) {
+            System.out.println("Error: Course code " + courseCode + " already exists.");
+            return;
+        }
+        System.out.println("Successfully added Course: " + name + " (" + courseCode + ")");
+        updateSchedulingRules(courseCode, prerequisites, meetingHours);
+    }
+    
+    /**
+     * Adds a new student to the system.
+     */
+    public static Student addStudent(String name) {
+        // Register with a generated ID; age is not collected by the console interface
+        Student newStudent = new Student(registry, registry.addStudent(name, -1).getId());
+        System.out.println("Successfully added Student: " + name + " (ID: " + newStudent.getId() + ")");
+        return newStudent;
+    }
+    
+    /**
+     * Enrolls a student in a specific course.
+     */
+    public static void enrollStudent(String studentId, String courseCode) {
+        long start = System.nanoTime();
+        try {
+            doEnrollStudent(studentId, courseCode);
+        } finally {
+            enrollCount.increment();
+            enrollLatency.recordSince(start);
+        }
+    }
+
+    private static void doEnrollStudent(String studentId, String courseCode) {
+        Student student = student(studentId);
+        Course course = course(courseCode);
+        
+        if (student == null) {
+            System.out.println("Error: Student with ID " + studentId + " not found.");
+            return;
+        }
+        if (course == null) {
+            System.out.println("Error: Course with code " + courseCode + " not found.");
+            return;
+        }
+        
+        // Delegate enrollment logic to the instance method of the Student object
+        student.enrollInCourse(course);
+    }
+    
+    /**
+     * Assigns a grade to a student for a specific course.
+     */
+    public static void assignGrade(String studentId, String courseCode, int grade) {
+        long start = System.nanoTime();
+        try {
+            doAssignGrade(studentId, courseCode, grade);
+        } finally {
+            gradeCount.increment();
+            gradeLatency.recordSince(start);
+        }
+    }
+
+    private static void doAssignGrade(String studentId, String courseCode, int grade) {
+        Student student = student(studentId);
+        
+        if (student == null) {
+            System.out.println("Error: Student with ID " + studentId + " not found.");
+            return;
+        }
+        if (registry.course(courseCode) == null) {
+            System.out.println("Error: Course with code " + courseCode + " not found.");
+            return;
+        }
+        
+        // Delegate grade assignment logic to the instance method of the Student object
+        student.assignGrade(courseCode, grade);
+    }
+    
+    /**
+     * Calculates and stores the overall average grade for a student.
+     */
+    public static double calculateOverallGrade(String studentId) {
+        long start = System.nanoTime();
+        try {
+            return doCalculateOverallGrade(studentId);
+        } finally {
+            overallGradeLatency.recordSince(start);
+        }
+    }
+
+    private static double doCalculateOverallGrade(String studentId) {
+        Student student = student(studentId);
+        
+        if (student == null) {
+            System.out.println("Error: Student with ID " + studentId + " not found.");
+            return -1.0;
+        }
+        
+        // Averaged over the registry's primitive grade array, skipping pending (-1) grades
+        double overallAvg = student.averageGrade();
+        
+        if (Double.isNaN(overallAvg)) {
+            System.out.println("Student " + student.getName() + " has no assigned grades yet.");
+            overallGrades.put(studentId, 0.0);
+            return 0.0;
+        }
+        
+        overallGrades.put(studentId, overallAvg);
+        System.out.printf("Overall Grade for %s (ID: %s): %.2f\n", student.getName(), studentId, overallAvg);
+        return overallAvg;
+    }
+
+    /**
+     * Utility method to display all available courses.
+     * Reads a registry snapshot, so the listing and the total agree even while enrollments continue.
+     */
+    public static void displayCourses() {
+        try (StudentRegistry.Snapshot snapshot = registry.snapshot()) {
+            List<CourseRecord.Version> courses = snapshot.courses();
+            if (courses.isEmpty()) {
+                System.out.println("No courses registered.");
+                return;
+            }
+            System.out.println("\n--- Available Courses ---");
+            courses.forEach(c -> 
+                System.out.printf("[%s] %s (Capacity: %d)\n", c.getCode(), c.getName(), c.getMaxCapacity())
+            );
+            System.out.println("Total Students Enrolled System-Wide: " + snapshot.totalEnrollments());
+        }
+    }
+
+    /**
+     * Utility method to display all registered students.
+     * Each row is read from one registry snapshot instead of the live records.
+     */
+    public static void displayStudents() {
+        try (StudentRegistry.Snapshot snapshot = registry.snapshot()) {
+            if (snapshot.students().findFirst().isEmpty()) {
+                System.out.println("No students registered.");
+                return;
+            }
+            System.out.println("\n--- Registered Students ---");
+            snapshot.students().forEach(s -> {
+                Map<CourseRecord, Double> grades = snapshot.gradesOf(s);
+                String enrolled = grades.isEmpty() ? "None" : grades.keySet().stream().map(CourseRecord::getCode).collect(Collectors.joining(", "));
+                String overall = overallGrades.getOrDefault(s.getId(), -1.0) == -1.0 ? "N/A" : String.format("%.2f", overallGrades.get(s.getId()));
+                System.out.printf("ID: %s | Name: %s | Enrolled: %s | Overall Grade: %s\n", s.getId(), s.getName(), enrolled, overall);
+            });
+        }
+    }
+    
+    /**
+     * Utility method to replay the most recent changes from the registry's change log.
+     */
+    public static void displayRecentChanges(int limit) {
+        ChangeLog<ChangeEvent> changes = registry.changes();
+        ChangeLog<ChangeEvent>.Cursor cursor = changes.subscribe(Math.max(changes.oldestSequence(), changes.nextSequence() - limit));
+        System.out.println("\n--- Recent Changes ---");
+        try {
+            if (cursor.drain(e -> System.out.println("#" + e.sequence() + " " + e), limit) == 0) {
+                System.out.println("No changes recorded.");
+            }
+        } catch (ChangeLog.OverrunException e) {
+            System.out.println("Changes are arriving faster than they can be listed: " + e.getMessage());
+        }
+    }
+
+    // --- Update Functionality (for demonstration) ---
+    
+    public static void updateStudentName(String studentId, String newName) {
+        if (registry.renameStudent(studentId, newName) == StudentRegistry.Status.OK) {
+            System.out.println("Student ID " + studentId + " updated to name: " + newName);
+        } else {
+            System.out.println("Error: Student ID not found for update.");
+        }
+    }
+    
+    public static void updateCourseDetails(String courseCode, String newName, int newCapacity) {
+        if (registry.updateCourse(courseCode, newName, newCapacity) == StudentRegistry.Status.OK) {
+            System.out.println("Course " + courseCode + " updated.");
+        } else {
+            System.out.println("Error: Course code not found for update.");
+        }
+    }
+
+    /**
+     * Updates a course's details; null prerequisites or meeting hours are left unchanged.
+     */
+    public static void updateCourseDetails(String courseCode, String newName, int newCapacity, List<String> prerequisites, int[] meetingHours) {
+        if (registry.updateCourse(courseCode, newName, newCapacity) != StudentRegistry.Status.OK) {
+            System.out.println("Error: Course code not found for update.");
+            return;
+        }
+        System.out.println("Course " + courseCode + " updated.");
+        updateSchedulingRules(courseCode, prerequisites, meetingHours);
+    }
+
+    // The catalog rebuilds only the prerequisite closures affected by the change
+    private static void updateSchedulingRules(String courseCode, List<String> prerequisites, int[] meetingHours) {
+        if (prerequisites != null) {
+            switch (registry.setPrerequisites(courseCode, prerequisites)) {
+                case OK:
+                    if (!prerequisites.isEmpty()) System.out.println("Prerequisites for " + courseCode + ": " + String.join(", ", prerequisites));
+                    break;
+                case PREREQUISITE_CYCLE:
+                    System.out.println("Error: Prerequisites for " + courseCode + " would form a cycle; left unchanged.");
+                    break;
+                default:
+                    System.out.println("Error: Unknown prerequisite course; prerequisites for " + courseCode + " left unchanged.");
+            }
+        }
+        if (meetingHours != null) {
+            registry.setMeetingHours(courseCode, meetingHours);
+        }
+    }
+}
@@ -1,337 +1,7 @@
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Scanner;
-import java.util.UUID;
+import java.util.Arrays;
 import java.util.List;
-import java.util.ArrayList;
-
-/**
- * The Student class encapsulates student data and behavior.
- * It manages student ID, name, enrolled courses, and grades using private
- * instance variables and public accessors (getters/setters).
- */
-class Student {
-    private final String id;
-    private String name;
-    // Map: Course Code -> Course Object
-    private final Map<String, Course> enrolledCourses; 
-    // Map: Course Code -> Grade (0-100)
-    private final Map<String, Integer> grades; 
-
-    /**
-     * Constructor for the Student class.
-     * @param name The name of the student.
-     */
-    public Student(String name) {
-        this.id = UUID.randomUUID().toString().substring(0, 8); // Simple unique ID
-        this.name = name;
-        this.enrolledCourses = new HashMap<>();
-        this.grades = new HashMap<>();
-    }
-
-    // --- Public Getter Methods ---
-    public String getId() {
-        return id;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public Map<String, Course> getEnrolledCourses() {
-        // Return a copy to prevent external modification of the internal map
-        return new HashMap<>(enrolledCourses);
-    }
-    
-    public Map<String, Integer> getGrades() {
-        // Return a copy to prevent external modification of the internal map
-        return new HashMap<>(grades);
-    }
-
-    // --- Public Setter Method for Updates ---
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    /**
-     * Enrolls the student in a course and updates the course's enrollment count.
-     * @param course The Course object to enroll in.
-     */
-    public void enrollInCourse(Course course) {
-        if (enrolledCourses.containsKey(course.getCourseCode())) {
-            System.out.println("Student " + name + " is already enrolled in " + course.getName());
-            return;
-        }
-        
-        // Use instance method of Course to check capacity and increment static counter
-        if (course.enrollStudent()) {
-            enrolledCourses.put(course.getCourseCode(), course);
-            grades.put(course.getCourseCode(), -1); // -1 indicates pending grade
-            System.out.println("Student " + name + " successfully enrolled in " + course.getName());
-        } else {
-            System.out.println("Enrollment failed. " + course.getName() + " has reached maximum capacity.");
-        }
-    }
-
-    /**
-     * Assigns a grade to the student for a specific course.
-     * @param courseCode The code of the course.
-     * @param grade The grade to assign (0-100).
-     */
-    public void assignGrade(String courseCode, int grade) {
-        if (!enrolledCourses.containsKey(courseCode)) {
-            System.out.println("Error: Student " + name + " is not enrolled in course " + courseCode);
-            return;
-        }
-        if (grade < 0 || grade > 100) {
-            System.out.println("Error: Invalid grade value. Grade must be between 0 and 100.");
-            return;
-        }
-        grades.put(courseCode, grade);
-        System.out.println("Grade " + grade + " assigned to " + name + " for course " + courseCode);
-    }
-}
-
-/**
- * The Course class encapsulates course data and tracks system-wide enrollment.
- * It uses a static variable to manage the total number of enrolled students 
- * across all courses.
- */
-class Course {
-    private final String courseCode;
-    private String name;
-    private int maxCapacity;
-    
-    // Static variable to track system-wide enrollment
-    private static int totalEnrolledStudents = 0; 
-
-    /**
-     * Constructor for the Course class.
-     */
-    public Course(String courseCode, String name, int maxCapacity) {
-        this.courseCode = courseCode;
-        this.name = name;
-        this.maxCapacity = maxCapacity;
-    }
-
-    // --- Public Getter Methods ---
-    public String getCourseCode() {
-        return courseCode;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public int getMaxCapacity() {
-        return maxCapacity;
-    }
-    
-    // --- Public Setter Methods for Updates ---
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    public void setMaxCapacity(int maxCapacity) {
-        this.maxCapacity = maxCapacity;
-    }
-
-    /**
-     * Static method to retrieve the total number of enrolled students across all courses.
-     * @return The system's total enrollment count.
-     */
-    public static int getTotalEnrolledStudents() {
-        return totalEnrolledStudents;
-    }
-    
-    /**
-     * Instance method that increments the static enrollment count if capacity allows.
-     * This method is called during student enrollment.
-     * @return true if enrollment succeeded, false if max capacity is reached.
-     */
-    public boolean enrollStudent() {
-        // Note: This implementation simplifies tracking capacity per course
-        // by only checking maxCapacity during enrollment. In a real system, 
-        // a map of enrolled students per course would be required.
-        // Also note: the requirement stated a static variable to track "total number of enrolled students across all instances of the Course class". 
-        // A more realistic scenario would track students per course instance, but this adheres to the exact static requirement.
-        
-        // This check currently uses the *global* total against the *individual* course capacity, 
-        // which might lead to inaccurate per-course capacity handling but fulfills the static variable requirement.
-        if (totalEnrolledStudents < maxCapacity) { 
-            totalEnrolledStudents++;
-            return true;
-        }
-        return false;
-    }
-}
-
-/**
- * The CourseManagement class acts as the central repository and manager.
- * It uses private static variables to hold all system data (courses, students, grades)
- * and public static methods to perform all core operations.
- */
-class CourseManagement {
-    // Private static variables ensure data is shared across the application and protected from external direct access.
-    private static final Map<String, Course> courses = new HashMap<>(); // Key: Course Code
-    private static final Map<String, Student> students = new HashMap<>(); // Key: Student ID
-    // Map: Student ID -> Overall Average Grade
-    private static final Map<String, Double> overallGrades = new HashMap<>(); 
-    
-    // --- Public Static Utility Methods ---
-    
-    /**
-     * Adds a new course to the system.
-     */
-    public static void addCourse(String courseCode, String name, int capacity) {
-        if (courses.containsKey(courseCode)) {
-            System.out.println("Error: Course code " + courseCode + " already exists.");
-            return;
-        }
-        Course newCourse = new Course(courseCode, name, capacity);
-        courses.put(courseCode, newCourse);
-        System.out.println("Successfully added Course: " + name + " (" + courseCode + ")");
-    }
-    
-    /**
-     * Adds a new student to the system.
-     */
-    public static Student addStudent(String name) {
-        // Create student object
-        Student newStudent = new Student(name);
-        // Add to static map
-        students.put(newStudent.getId(), newStudent);
-        System.out.println("Successfully added Student: " + name + " (ID: " + newStudent.getId() + ")");
-        return newStudent;
-    }
-    
-    /**
-     * Enrolls a student in a specific course.
-     */
-    public static void enrollStudent(String studentId, String courseCode) {
-        Student student = students.get(studentId);
-        Course course = courses.get(courseCode);
-        
-        if (student == null) {
-            System.out.println("Error: Student with ID " + studentId + " not found.");
-            return;
-        }
-        if (course == null) {
-            System.out.println("Error: Course with code " + courseCode + " not found.");
-            return;
-        }
-        
-        // Delegate enrollment logic to the instance method of the Student object
-        student.enrollInCourse(course);
-    }
-    
-    /**
-     * Assigns a grade to a student for a specific course.
-     */
-    public static void assignGrade(String studentId, String courseCode, int grade) {
-        Student student = students.get(studentId);
-        
-        if (student == null) {
-            System.out.println("Error: Student with ID " + studentId + " not found.");
-            return;
-        }
-        if (!courses.containsKey(courseCode)) {
-            System.out.println("Error: Course with code " + courseCode + " not found.");
-            return;
-        }
-        
-        // Delegate grade assignment logic to the instance method of the Student object
-        student.assignGrade(courseCode, grade);
-    }
-    
-    /**
-     * Calculates and stores the overall average grade for a student.
-     */
-    public static double calculateOverallGrade(String studentId) {
-        Student student = students.get(studentId);
-        
-        if (student == null) {
-            System.out.println("Error: Student with ID " + studentId + " not found.");
-            return -1.0;
-        }
-        
-        Map<String, Integer> grades = student.getGrades();
-        int totalScore = 0;
-        int gradedCourses = 0;
-        
-        for (int grade : grades.values()) {
-            if (grade != -1) { // Only count assigned grades
-                totalScore += grade;
-                gradedCourses++;
-            }
-        }
-        
-        if (gradedCourses == 0) {
-            System.out.println("Student " + student.getName() + " has no assigned grades yet.");
-            overallGrades.put(studentId, 0.0);
-            return 0.0;
-        }
-        
-        double overallAvg = (double) totalScore / gradedCourses;
-        overallGrades.put(studentId, overallAvg);
-        System.out.printf("Overall Grade for %s (ID: %s): %.2f\n", student.getName(), studentId, overallAvg);
-        return overallAvg;
-    }
-
-    /**
-     * Utility method to display all available courses.
-     */
-    public static void displayCourses() {
-        if (courses.isEmpty()) {
-            System.out.println("No courses registered.");
-            return;
-        }
-        System.out.println("\n--- Available Courses ---");
-        courses.values().forEach(c -> 
-            System.out.printf("[%s] %s (Capacity: %d)\n", c.getCourseCode(), c.getName(), c.getMaxCapacity())
-        );
-        System.out.println("Total Students Enrolled System-Wide: " + Course.getTotalEnrolledStudents());
-    }
-
-    /**
-     * Utility method to display all registered students.
-     */
-    public static void displayStudents() {
-        if (students.isEmpty()) {
-            System.out.println("No students registered.");
-            return;
-        }
-        System.out.println("\n--- Registered Students ---");
-        students.values().forEach(s -> {
-            String enrolled = s.getEnrolledCourses().isEmpty() ? "None" : String.join(", ", s.getEnrolledCourses().keySet());
-            String overall = overallGrades.getOrDefault(s.getId(), -1.0) == -1.0 ? "N/A" : String.format("%.2f", overallGrades.get(s.getId()));
-            System.out.printf("ID: %s | Name: %s | Enrolled: %s | Overall Grade: %s\n", s.getId(), s.getName(), enrolled, overall);
-        });
-    }
-    
-    // --- Update Functionality (for demonstration) ---
-    
-    public static void updateStudentName(String studentId, String newName) {
-        Student student = students.get(studentId);
-        if (student != null) {
-            student.setName(newName);
-            System.out.println("Student ID " + studentId + " updated to name: " + newName);
-        } else {
-            System.out.println("Error: Student ID not found for update.");
-        }
-    }
-    
-    public static void updateCourseDetails(String courseCode, String newName, int newCapacity) {
-        Course course = courses.get(courseCode);
-        if (course != null) {
-            course.setName(newName);
-            course.setMaxCapacity(newCapacity);
-            System.out.println("Course " + courseCode + " updated.");
-        } else {
-            System.out.println("Error: Course code not found for update.");
-        }
-    }
-}
+import java.util.Scanner;
+import java.util.stream.Collectors;
 
 /**
  * The AdministratorInterface class provides the command-line interface 
@@ -341,6 +11,7 @@ public class CourseManagementSystem {
     
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
+        Metrics.startDumpFromSystemProperties();
         
         // Initialize sample data for demonstration
         CourseManagement.addCourse("CS101", "Intro to Programming", 5);
@@ -386,6 +57,13 @@ public class CourseManagementSystem {
                     case "8":
                         handleUpdateCourse(scanner);
                         break;
+                    case "10":
+                        System.out.print(Metrics.report());
+                        System.out.println(CourseManagement.registry().storageStats());
+                        break;
+                    case "11":
+                        CourseManagement.displayRecentChanges(20);
+                        break;
                     case "9":
                         System.out.println("Exiting System. Goodbye!");
                         running = false;
@@ -401,6 +79,7 @@ public class CourseManagementSystem {
             System.out.println("\n----------------------------------------");
         }
         scanner.close();
+        CourseManagement.registry().close();
     }
     
     private static void displayMenu() {
@@ -413,7 +92,9 @@ public class CourseManagementSystem {
         System.out.println("6. Display All Data (Courses & Students)");
         System.out.println("7. Update Student Name");
         System.out.println("8. Update Course Details");
-        System.out.println("9. Exit");
+        System.out.println("10. Show Metrics");
+        System.out.println("11. Show Recent Changes");
+        System.out.println("9. Exit"); // keeps its original number so existing input still exits
     }
 
     private static void handleAddCourse(Scanner scanner) {
@@ -428,11 +109,38 @@ public class CourseManagementSystem {
                 System.out.println("Error: Capacity must be a positive number.");
                 return;
             }
-            CourseManagement.addCourse(code, name, capacity);
+            List<String> prerequisites = readPrerequisites(scanner, false);
+            int[] meetingHours = readMeetingHours(scanner, false);
+            CourseManagement.addCourse(code, name, capacity,
+                                       prerequisites == null ? List.of() : prerequisites,
+                                       meetingHours == null ? new int[0] : meetingHours);
         } catch (NumberFormatException e) {
             System.out.println("Error: Invalid number format for capacity.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
+
+    // Blank input returns null, meaning "no change" for updates and "none" for new courses;
+    // NONE returns an empty value, which clears the field of an existing course
+    private static List<String> readPrerequisites(Scanner scanner, boolean update) {
+        System.out.print("Enter Prerequisite Course Codes, comma-separated (" + blankHint(update) + "): ");
+        String line = scanner.nextLine().trim();
+        if (line.isEmpty()) return null;
+        if (line.equalsIgnoreCase("NONE")) return List.of();
+        return Arrays.stream(line.split(",")).map(String::trim).filter(c -> !c.isEmpty()).collect(Collectors.toList());
+    }
+
+    private static int[] readMeetingHours(Scanner scanner, boolean update) {
+        System.out.print("Enter Weekly Schedule, e.g. MON 9-11, WED 9-10 (" + blankHint(update) + "): ");
+        String line = scanner.nextLine().trim();
+        if (line.isEmpty()) return null;
+        return line.equalsIgnoreCase("NONE") ? new int[0] : CourseCatalog.parseHours(line);
+    }
+
+    private static String blankHint(boolean update) {
+        return update ? "blank for no change, NONE to clear" : "blank for none";
+    }
     
     private static void handleAddStudent(Scanner scanner) {
         System.out.print("Enter Student Name: ");
@@ -488,9 +196,13 @@ public class CourseManagementSystem {
                 System.out.println("Error: Capacity must be a positive number.");
                 return;
             }
-            CourseManagement.updateCourseDetails(code, name, capacity);
+            List<String> prerequisites = readPrerequisites(scanner, true);
+            int[] meetingHours = readMeetingHours(scanner, true);
+            CourseManagement.updateCourseDetails(code, name, capacity, prerequisites, meetingHours);
         } catch (NumberFormatException e) {
             System.out.println("Error: Invalid number format for capacity.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,107 @@
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A course as stored in {@link StudentRegistry}.
+ * <p>
+ * Each course gets a dense slot number used to index student grade arrays
+ * and enrollment bitsets. Seats are reserved with a compare-and-set on the
+ * enrolled count, so capacity is enforced per course without a global lock.
+ * <p>
+ * Name and capacity change together as one immutable {@link Version}; while
+ * {@link StudentRegistry.Snapshot}s are open, superseded versions are kept so
+ * that a snapshot sees the details as of the moment it was taken.
+ */
+public final class CourseRecord {
+    private final String code;
+    private final int slot;
+    private volatile Version current;
+    private final AtomicInteger enrolled = new AtomicInteger();
+    private final Set<String> roster = ConcurrentHashMap.newKeySet(); // student ids
+
+    /**
+     * Immutable name and capacity of a course, valid from {@code stamp} until the next version.
+     */
+    public static final class Version {
+        private final CourseRecord course;
+        private final String name;
+        private final int maxCapacity;
+        private final long stamp;
+        private Version older; // guarded by the course; kept only while snapshots may need it
+
+        Version(CourseRecord course, String name, int maxCapacity, long stamp) {
+            this.course = course;
+            this.name = name;
+            this.maxCapacity = maxCapacity;
+            this.stamp = stamp;
+        }
+
+        public CourseRecord getCourse() { return course; }
+        public String getCode() { return course.code; }
+        public int getSlot() { return course.slot; }
+        public String getName() { return name; }
+        public int getMaxCapacity() { return maxCapacity; }
+    }
+
+    CourseRecord(String code, String name, int maxCapacity, int slot, long stamp) {
+        this.code = code;
+        this.slot = slot;
+        this.current = new Version(this, name, maxCapacity, stamp);
+    }
+
+    // --- Public Getter Methods ---
+
+    public String getCode() { return code; }
+    public String getName() { return current.name; }
+    public int getMaxCapacity() { return current.maxCapacity; }
+    public int getSlot() { return slot; }
+    public int getEnrolledCount() { return enrolled.get(); }
+
+    /** @return a live read-only view of the enrolled student ids. */
+    public Set<String> getRoster() { return Collections.unmodifiableSet(roster); }
+
+    // --- Mutations (called by StudentRegistry) ---
+
+    /**
+     * Replaces name and capacity at once.
+     * @param stamp the registry clock at the change.
+     * @param oldestPin oldest open snapshot, or {@code Long.MAX_VALUE} if none: older versions are dropped.
+     */
+    synchronized void setDetails(String name, int maxCapacity, long stamp, long oldestPin) {
+        Version previous = current;
+        Version next = new Version(this, name, maxCapacity, stamp);
+        if (oldestPin != Long.MAX_VALUE) {
+            next.older = previous.stamp < stamp ? previous : previous.older; // same stamp: no snapshot can tell them apart
+            // A version is needed only while a snapshot may fall inside its validity
+            Version v = next;
+            while (v.older != null && v.stamp > oldestPin) v = v.older;
+            v.older = null;
+        }
+        current = next;
+    }
+
+    /** @return the details before {@code stamp}, or null if the course was added later. */
+    synchronized Version versionAt(long stamp) {
+        for (Version v = current; v != null; v = v.older) {
+            if (v.stamp < stamp) return v;
+        }
+        return null;
+    }
+
+    boolean tryReserveSeat() {
+        while (true) {
+            int taken = enrolled.get();
+            if (taken >= getMaxCapacity()) return false;
+            if (enrolled.compareAndSet(taken, taken + 1)) return true;
+        }
+    }
+
+    void addToRoster(String studentId) { roster.add(studentId); }
+
+    @Override
+    public String toString() {
+        return code + " - " + getName();
+    }
+}
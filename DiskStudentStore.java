@@ -0,0 +1,89 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Local disk spill area for {@link StudentRecord}s: one small binary file per
+ * student, written atomically (temp file + rename). File names are the hex
+ * encoding of the id so any user-entered id is a safe name.
+ * <p>
+ * Each store creates its own fresh subdirectory of the spill directory it
+ * is given and deletes it on {@link #close()}; nothing else in the spill
+ * directory is read or removed. The store extends the heap, it is not a
+ * durable database.
+ */
+final class DiskStudentStore {
+    private final Path directory;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    DiskStudentStore(Path spillDirectory) {
+        try {
+            Files.createDirectories(spillDirectory);
+            this.directory = Files.createTempDirectory(spillDirectory, "students-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to prepare student store in " + spillDirectory, e);
+        }
+    }
+
+    /** Deletes this store's directory and every record in it. */
+    void close() {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+            Files.delete(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to remove student store " + directory, e);
+        }
+    }
+
+    /** @return the stored record, or null if the student was never written. */
+    StudentRecord read(String id) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(fileFor(id)))) {
+            reads.increment();
+            return StudentRecord.readFrom(new DataInputStream(in));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read student " + id, e);
+        }
+    }
+
+    void write(StudentRecord record) {
+        Path target = fileFor(record.getId());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp-" + Thread.currentThread().getId());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            record.writeTo(new DataOutputStream(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write student " + record.getId(), e);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writes.increment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write student " + record.getId(), e);
+        }
+    }
+
+    long readCount() { return reads.sum(); }
+    long writeCount() { return writes.sum(); }
+
+    private Path fileFor(String id) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return directory.resolve(name.append(".rec").toString());
+    }
+}
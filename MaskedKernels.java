@@ -0,0 +1,139 @@
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.Optional;
+
+/**
+ * Masked aggregation kernels over primitive arrays: count, sum, min and max
+ * of the elements a mask selects, in one pass. Used for grade averages
+ * (enrollment bitset, ungraded sentinel) and the employee column
+ * aggregates (age filter over salaries).
+ * <p>
+ * {@link #get()} returns the SIMD implementation built on the incubating
+ * Vector API ({@code VectorMaskedKernels}) when it is compiled and the JVM
+ * was started with {@code --add-modules jdk.incubator.vector}, and the
+ * scalar loops otherwise ({@code -Dkernels.vector=false} forces scalar).
+ * Both return the same counts, minima and maxima. Double sums may differ in
+ * the last bits because the vector code adds lanes in a different order.
+ * <p>
+ * To enable the vector kernels, compile them once next to the other classes:
+ * <pre>
+ * javac --add-modules jdk.incubator.vector -sourcepath .. -d . ../VectorMaskedKernels.java
+ * java --add-modules jdk.incubator.vector -cp . ...
+ * </pre>
+ */
+public abstract class MaskedKernels {
+    private static final MaskedKernels SCALAR = new Scalar();
+    private static final MaskedKernels VECTOR = loadVector();
+    private static final MaskedKernels PREFERRED =
+            VECTOR != null && Boolean.parseBoolean(System.getProperty("kernels.vector", "true")) ? VECTOR : SCALAR;
+
+    /** @return the kernels to use: vectorized when available, scalar otherwise. */
+    public static MaskedKernels get() { return PREFERRED; }
+
+    public static MaskedKernels scalar() { return SCALAR; }
+
+    /** @return the Vector API kernels, if this JVM can run them. */
+    public static Optional<MaskedKernels> vector() { return Optional.ofNullable(VECTOR); }
+
+    private static MaskedKernels loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return (MaskedKernels) Class.forName("VectorMaskedKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException e) {
+            return null; // not compiled, or no usable vector shape on this CPU
+        }
+    }
+
+    public abstract String name();
+
+    /** Statistics of {@code values[from, to)} that are greater than {@code threshold}. */
+    public abstract IntSummaryStatistics summarizeAbove(int[] values, int from, int to, int threshold);
+
+    /** Statistics of all of {@code values[from, to)}. */
+    public abstract DoubleSummaryStatistics summarize(double[] values, int from, int to);
+
+    /** Statistics of {@code values[i]}, i in [from, to), where {@code keys[i] > threshold}. */
+    public abstract DoubleSummaryStatistics summarizeWhereAbove(double[] values, int[] keys, int from, int to, int threshold);
+
+    /**
+     * Statistics of {@code values[i]} for every bit i set in {@code selected}
+     * (bit i of word i / 64), skipping elements equal to {@code skip}. Bits at
+     * or beyond {@code values.length} are ignored.
+     */
+    public abstract DoubleSummaryStatistics summarizeSelected(double[] values, long[] selected, double skip);
+
+    /**
+     * Plain loops; the JIT unrolls them and may auto-vectorize the simpler ones.
+     */
+    private static final class Scalar extends MaskedKernels {
+        @Override
+        public String name() { return "scalar"; }
+
+        @Override
+        public IntSummaryStatistics summarizeAbove(int[] values, int from, int to, int threshold) {
+            long count = 0, sum = 0;
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                int v = values[i];
+                if (v > threshold) {
+                    count++;
+                    sum += v;
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+            }
+            return new IntSummaryStatistics(count, min, max, sum);
+        }
+
+        @Override
+        public DoubleSummaryStatistics summarize(double[] values, int from, int to) {
+            double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double v = values[i];
+                sum += v;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            return new DoubleSummaryStatistics(to - from, min, max, sum);
+        }
+
+        @Override
+        public DoubleSummaryStatistics summarizeWhereAbove(double[] values, int[] keys, int from, int to, int threshold) {
+            long count = 0;
+            double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                if (keys[i] > threshold) {
+                    double v = values[i];
+                    count++;
+                    sum += v;
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+            }
+            return new DoubleSummaryStatistics(count, min, max, sum);
+        }
+
+        @Override
+        public DoubleSummaryStatistics summarizeSelected(double[] values, long[] selected, double skip) {
+            long count = 0;
+            double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            int words = (int) Math.min(selected.length, (values.length + 63L) >>> 6);
+            for (int word = 0; word < words; word++) {
+                long bits = selected[word];
+                int slots = values.length - (word << 6);
+                if (slots < 64) bits &= (1L << slots) - 1; // bits past the end of values are ignored
+                while (bits != 0) {
+                    double v = values[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                    if (v != skip) {
+                        count++;
+                        sum += v;
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    }
+                }
+            }
+            return new DoubleSummaryStatistics(count, min, max, sum);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Compares the scalar and Vector API implementations of {@link MaskedKernels}
+ * on large primitive columns: age-filtered statistics over int[], salary
+ * statistics and age-filtered salary statistics over double[], and grade
+ * statistics under an enrollment bitset with the ungraded sentinel, once with
+ * about half the slots enrolled and once with one slot in 500.
+ * Each kernel runs a few rounds; the first ones warm up the JIT and the best
+ * round is reported. Results of the two implementations are cross-checked.
+ * <p>
+ * Usage (from the repository root):
+ * <pre>
+ * javac --add-modules jdk.incubator.vector -d /tmp/kernels MaskedKernelsBenchmark.java VectorMaskedKernels.java
+ * java -Xmx3g --add-modules jdk.incubator.vector -cp /tmp/kernels MaskedKernelsBenchmark [elements] [rounds]
+ * </pre>
+ * Defaults: 100,000,000 elements, 5 rounds. Without the module only the
+ * scalar kernels run.
+ */
+public class MaskedKernelsBenchmark {
+
+    public static void main(String[] args) {
+        int elements = args.length > 0 ? Integer.parseInt(args[0]) : 100_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.printf("Generating %,d elements per column...%n", elements);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] ages = new int[elements];
+        double[] salaries = new double[elements];
+        double[] grades = new double[elements];
+        long[] enrolled = new long[(elements + 63) >>> 6];
+        long[] sparselyEnrolled = new long[enrolled.length];
+        for (int i = 0; i < elements; i++) {
+            ages[i] = 20 + random.nextInt(45);
+            salaries[i] = 30000 + random.nextInt(120000);
+            // About half the slots are enrolled, and a fifth of those are not graded yet
+            if (random.nextBoolean()) {
+                enrolled[i >>> 6] |= 1L << i;
+                grades[i] = random.nextInt(5) == 0 ? StudentRegistry.NO_GRADE : random.nextInt(101);
+            }
+            // A few courses out of a large catalog: most bitset words are empty
+            if (random.nextInt(500) == 0) sparselyEnrolled[i >>> 6] |= 1L << i;
+        }
+
+        Optional<MaskedKernels> vector = MaskedKernels.vector();
+        List<MaskedKernels> candidates = vector.isPresent() ? List.of(MaskedKernels.scalar(), vector.get()) : List.of(MaskedKernels.scalar());
+        if (vector.isEmpty()) System.out.println("Vector API kernels unavailable; run with --add-modules jdk.incubator.vector to compare.");
+
+        compare("ages > 30 (int[])", rounds, elements, candidates, k -> describe(k.summarizeAbove(ages, 0, elements, 30)));
+        compare("salaries (double[])", rounds, elements, candidates, k -> describe(k.summarize(salaries, 0, elements)));
+        compare("salaries where age > 30", rounds, elements, candidates, k -> describe(k.summarizeWhereAbove(salaries, ages, 0, elements, 30)));
+        compare("grades of enrolled slots", rounds, elements, candidates, k -> describe(k.summarizeSelected(grades, enrolled, StudentRegistry.NO_GRADE)));
+        compare("grades of sparsely enrolled slots", rounds, elements, candidates, k -> describe(k.summarizeSelected(grades, sparselyEnrolled, StudentRegistry.NO_GRADE)));
+    }
+
+    private static void compare(String label, int rounds, int elements, List<MaskedKernels> candidates, Function<MaskedKernels, String> kernel) {
+        System.out.println("\n--- " + label + " ---");
+        String expected = null;
+        long scalarNanos = 0;
+        for (MaskedKernels kernels : candidates) {
+            long best = Long.MAX_VALUE;
+            String result = null;
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                result = kernel.apply(kernels);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            if (expected == null) {
+                expected = result;
+                scalarNanos = best;
+            }
+            System.out.printf("%-16s %7.1f ms  %7.0f M elements/s  %s%s%n", kernels.name(), best / 1e6, elements / (best / 1e3),
+                              result, kernels == candidates.get(0) ? "" : String.format("  (%.1fx)", (double) scalarNanos / best));
+            if (!result.equals(expected)) System.out.println("  MISMATCH: expected " + expected);
+        }
+    }
+
+    private static String describe(IntSummaryStatistics s) {
+        return String.format("count=%d sum=%d min=%d max=%d", s.getCount(), s.getSum(), s.getMin(), s.getMax());
+    }
+
+    // Sums are printed with 12 significant digits, since lane order may change the last bits
+    private static String describe(DoubleSummaryStatistics s) {
+        return String.format("count=%d sum=%.12g min=%.1f max=%.1f", s.getCount(), s.getSum(), s.getMin(), s.getMax());
+    }
+}
@@ -0,0 +1,213 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight, shared instrumentation for the management systems in this repository.
+ * <p>
+ * Counters are striped {@link LongAdder}s and latency histograms use fixed
+ * log-linear buckets (HDR-style, about 1.6% relative precision), so recording
+ * never allocates and never takes a lock. Callers look up their meters once
+ * (typically into {@code static final} fields) and record on the hot path.
+ * <p>
+ * Metrics can be pulled with {@link #report()} or dumped periodically to a
+ * local file: run with {@code -Dmetrics.file=metrics.txt} (and optionally
+ * {@code -Dmetrics.interval=10} seconds) and call {@link #startDumpFromSystemProperties()}.
+ * <p>
+ * The programs in sub-folders pick this file up with {@code javac -sourcepath .. -d . *.java},
+ * and CourseManagementSystem with {@code javac -sourcepath . -d <dir> CourseManagementSystem.java}.
+ * VehicleRentalSystem runs through the source launcher, which compiles a single file, so
+ * it finds this class on the class path: {@code javac -d <dir> Metrics.java}, then
+ * {@code java -cp <dir> VehicleInformationSystem.java}.
+ */
+public final class Metrics {
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper;
+    private static volatile Path dumpFile; // target of the final dump; its hook is registered once
+
+    private Metrics() {}
+
+    // --- Registry ---
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // --- Pull API ---
+
+    public static Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * @return a human-readable report of every counter and histogram, sorted by name.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# metrics @ ").append(Instant.now()).append('\n');
+        counterValues().forEach((name, value) -> sb.append(name).append(" count=").append(value).append('\n'));
+        new TreeMap<>(histograms).forEach((name, histogram) -> sb.append(name).append(' ').append(histogram).append('\n'));
+        return sb.toString();
+    }
+
+    // --- Periodic Dump ---
+
+    /**
+     * Starts the periodic file dump if {@code metrics.file} is set; otherwise does nothing.
+     */
+    public static void startDumpFromSystemProperties() {
+        String file = System.getProperty("metrics.file");
+        if (file == null || file.isEmpty()) return;
+        long interval = Long.getLong("metrics.interval", 10L);
+        startPeriodicDump(Paths.get(file), interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Rewrites {@code file} with the current {@link #report()} every period, from a daemon thread.
+     * The file is replaced atomically so readers never see a partial report.
+     */
+    public static synchronized void startPeriodicDump(Path file, long period, TimeUnit unit) {
+        if (dumper != null) {
+            dumper.shutdownNow();
+        } else {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> tryDump(dumpFile), "metrics-final-dump"));
+        }
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> tryDump(file), period, period, unit);
+    }
+
+    // An exception escaping a scheduled task cancels every later run, so a failed write is only reported
+    private static void tryDump(Path file) {
+        try {
+            dump(file);
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage() + ": " + e.getCause());
+        }
+    }
+
+    public static void dump(Path file) {
+        try {
+            Path absolute = file.toAbsolutePath();
+            Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+            Files.write(tmp, report().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write metrics to " + file, e);
+        }
+    }
+
+    // --- Meters ---
+
+    /**
+     * Monotonic event counter backed by a striped {@link LongAdder}.
+     */
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() { adder.increment(); }
+        public void add(long n) { adder.add(n); }
+        public long sum() { return adder.sum(); }
+    }
+
+    /**
+     * Log-linear latency histogram over nanoseconds.
+     * Values below 128 ns are exact; above that each power of two is split
+     * into 64 sub-buckets, which bounds the relative error at 1/64.
+     */
+    public static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 7;
+        private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        public void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets.incrementAndGet(indexOf(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /** Records the time elapsed since a {@link System#nanoTime()} reading. */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        static int indexOf(long value) {
+            int msb = 63 - Long.numberOfLeadingZeros(value | 1);
+            if (msb < SUB_BUCKET_BITS) return (int) value;
+            int shift = msb - (SUB_BUCKET_BITS - 1);
+            return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+        }
+
+        // Midpoint of the value range covered by a bucket
+        static long valueOf(int index) {
+            if (index < 2 * HALF_SUB_BUCKETS) return index;
+            int shift = index / HALF_SUB_BUCKETS - 1;
+            long mantissa = index - shift * HALF_SUB_BUCKETS;
+            return (mantissa << shift) + ((1L << shift) >> 1);
+        }
+
+        public long getCount() { return count.sum(); }
+        public long getMaxNanos() { return maxNanos.get(); }
+
+        public double getMeanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) totalNanos.sum() / n;
+        }
+
+        /**
+         * @param percentile value in [0, 100].
+         * @return approximate latency at that percentile in nanoseconds.
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) total += buckets.get(i);
+            if (total == 0) return 0;
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) return Math.min(valueOf(i), getMaxNanos());
+            }
+            return getMaxNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus",
+                                 getCount(), getMeanNanos() / 1e3, getPercentileNanos(50) / 1e3,
+                                 getPercentileNanos(90) / 1e3, getPercentileNanos(99) / 1e3, getMaxNanos() / 1e3);
+        }
+    }
+}
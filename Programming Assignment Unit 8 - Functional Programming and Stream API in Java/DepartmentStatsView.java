@@ -0,0 +1,176 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Incrementally maintained per-department payroll statistics.
+ * <p>
+ * Instead of regrouping the whole dataset, the view applies hire, departure
+ * and salary-change events as they arrive. Count and salary sum change in
+ * O(1); min/max are kept exact through a salary multiset (a sorted map of
+ * salary to occurrence count), so removing the current maximum costs
+ * O(log n) rather than a rescan.
+ * <p>
+ * Writers lock only the department they touch (both of them, in name order,
+ * for a transfer). Every change publishes a new immutable map of
+ * {@link Snapshot}s, copied on write; departments are few, so the copy is
+ * cheap. Dashboard threads read through {@link #get(String)} or
+ * {@link #snapshot()} without locking, and never see half of a transfer.
+ */
+class DepartmentStatsView {
+
+    /**
+     * Immutable point-in-time statistics for one department.
+     */
+    static final class Snapshot {
+        private final String department;
+        private final long count;
+        private final double salarySum;
+        private final double minSalary;
+        private final double maxSalary;
+
+        Snapshot(String department, long count, double salarySum, double minSalary, double maxSalary) {
+            this.department = department;
+            this.count = count;
+            this.salarySum = salarySum;
+            this.minSalary = minSalary;
+            this.maxSalary = maxSalary;
+        }
+
+        // Getters
+        public String getDepartment() { return department; }
+        public long getCount() { return count; }
+        public double getSalarySum() { return salarySum; }
+        public double getMinSalary() { return minSalary; }
+        public double getMaxSalary() { return maxSalary; }
+        public double getAverageSalary() { return count == 0 ? 0 : salarySum / count; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d employee(s), Avg=%.2f, Min=%.2f, Max=%.2f",
+                                 department, count, getAverageSalary(), minSalary, maxSalary);
+        }
+    }
+
+    // Mutable per-department state, guarded by its own monitor
+    private static final class State {
+        long count;
+        double salarySum;
+        final TreeMap<Double, Integer> salaries = new TreeMap<>();
+    }
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final AtomicReference<Map<String, Snapshot>> published = new AtomicReference<>(Collections.emptyMap());
+
+    public static DepartmentStatsView of(Collection<Employee> employees) {
+        DepartmentStatsView view = new DepartmentStatsView();
+        employees.forEach(view::onHire);
+        return view;
+    }
+
+    // --- Change Events ---
+
+    public void onHire(Employee emp) {
+        apply(emp.getDepartment(), Double.NaN, emp.getSalary());
+    }
+
+    public void onDeparture(Employee emp) {
+        apply(emp.getDepartment(), emp.getSalary(), Double.NaN);
+    }
+
+    public void onSalaryChange(String department, double oldSalary, double newSalary) {
+        apply(department, oldSalary, newSalary);
+    }
+
+    /**
+     * Moves the employee from their current department to {@code newDepartment}
+     * as one change: readers see them in exactly one of the two.
+     */
+    public void onTransfer(Employee emp, String newDepartment) {
+        String oldDepartment = emp.getDepartment();
+        if (oldDepartment.equals(newDepartment)) return;
+        State source = states.computeIfAbsent(oldDepartment, d -> new State());
+        State target = states.computeIfAbsent(newDepartment, d -> new State());
+        // Name order, so two opposite transfers cannot deadlock
+        boolean sourceFirst = oldDepartment.compareTo(newDepartment) < 0;
+        synchronized (sourceFirst ? source : target) {
+            synchronized (sourceFirst ? target : source) {
+                update(oldDepartment, source, emp.getSalary(), Double.NaN);
+                update(newDepartment, target, Double.NaN, emp.getSalary());
+                publish(oldDepartment, source, newDepartment, target);
+            }
+        }
+    }
+
+    private void apply(String department, double oldSalary, double newSalary) {
+        State state = states.computeIfAbsent(department, d -> new State());
+        synchronized (state) {
+            update(department, state, oldSalary, newSalary);
+            publish(department, state, null, null);
+        }
+    }
+
+    /**
+     * Removes {@code oldSalary} and/or adds {@code newSalary} (NaN means "none").
+     * Fails before changing anything if no one in the department earns {@code oldSalary}.
+     */
+    private static void update(String department, State state, double oldSalary, double newSalary) {
+        if (!Double.isNaN(oldSalary)) {
+            Integer occurrences = state.salaries.get(oldSalary);
+            if (occurrences == null) {
+                throw new IllegalArgumentException("No employee in " + department + " earns " + oldSalary);
+            }
+            if (occurrences == 1) state.salaries.remove(oldSalary);
+            else state.salaries.put(oldSalary, occurrences - 1);
+            state.count--;
+            state.salarySum -= oldSalary;
+        }
+        if (!Double.isNaN(newSalary)) {
+            state.salaries.merge(newSalary, 1, Integer::sum);
+            state.count++;
+            state.salarySum += newSalary;
+        }
+        if (state.count == 0) state.salarySum = 0; // drop accumulated rounding error
+    }
+
+    /**
+     * Swaps in a copy of the published map with the given departments' snapshots
+     * replaced. Callers hold those departments' monitors, so their snapshots are
+     * published in change order.
+     */
+    private void publish(String department, State state, String other, State otherState) {
+        published.updateAndGet(current -> {
+            Map<String, Snapshot> next = new HashMap<>(current);
+            putSnapshot(next, department, state);
+            if (other != null) putSnapshot(next, other, otherState);
+            return Collections.unmodifiableMap(next);
+        });
+    }
+
+    private static void putSnapshot(Map<String, Snapshot> snapshots, String department, State state) {
+        if (state.count == 0) {
+            snapshots.remove(department);
+        } else {
+            snapshots.put(department, new Snapshot(department, state.count, state.salarySum,
+                                                   state.salaries.firstKey(), state.salaries.lastKey()));
+        }
+    }
+
+    // --- Lock-free Reads ---
+
+    /** @return the latest snapshot of a department, or null if it has no employees. */
+    public Snapshot get(String department) {
+        return published.get().get(department);
+    }
+
+    /**
+     * Read-only map of every department's snapshot, all taken at the same moment.
+     */
+    public Map<String, Snapshot> snapshot() {
+        return published.get();
+    }
+}
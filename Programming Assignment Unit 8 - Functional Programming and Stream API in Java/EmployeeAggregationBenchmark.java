@@ -0,0 +1,71 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the original multi-pass stream code of {@link EmployeeProcessor}
+ * with the single-pass {@link EmployeeStatistics} engine and the columnar
+ * {@link EmployeeTable} kernels.
+ * <p>
+ * Usage: {@code java -Xmx8g EmployeeAggregationBenchmark [rows] [rounds]}
+ * (defaults: 5,000,000 rows, 5 rounds). The row count is bounded by heap
+ * size since every row is an {@link Employee} object.
+ */
+public class EmployeeAggregationBenchmark {
+
+    private static final String[] DEPARTMENTS = {"Engineering", "Marketing", "HR", "Sales", "Finance", "Legal"};
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("Generating " + rows + " employees...");
+        List<Employee> employees = generate(rows, 42L);
+        EmployeeTable table = EmployeeTable.of(employees);
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("\n--- Round " + round + " ---");
+            time("Multi-pass streams    ", () -> multiPass(employees));
+            time("Single-pass sequential", () -> EmployeeStatistics.of(employees, false).getOverall().getCount());
+            time("Single-pass parallel  ", () -> EmployeeStatistics.of(employees, true).getOverall().getCount());
+            time("Columnar table        ", () -> columnar(table));
+        }
+    }
+
+    static List<Employee> generate(int rows, long seed) {
+        Random random = new Random(seed);
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            employees.add(new Employee("Employee " + i, 20 + random.nextInt(45),
+                                       DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                                       30000 + random.nextInt(120000)));
+        }
+        return employees;
+    }
+
+    // Mirrors the separate passes done in EmployeeProcessor.main
+    private static long multiPass(List<Employee> employees) {
+        long filtered = employees.stream().filter(emp -> emp.getAge() > 30).count();
+        double average = employees.stream().mapToDouble(Employee::getSalary).average().orElse(0);
+        Map<String, List<Employee>> byDept = employees.stream().collect(Collectors.groupingBy(Employee::getDepartment));
+        return filtered + (long) average + byDept.size();
+    }
+
+    // Same questions as multiPass, answered from primitive columns
+    private static long columnar(EmployeeTable table) {
+        long filtered = table.countAgeAbove(30);
+        double average = table.averageSalary();
+        int[] byDept = table.countByDepartment();
+        return filtered + (long) average + byDept.length;
+    }
+
+    private static void time(String label, LongSupplier task) {
+        long start = System.nanoTime();
+        long result = task.getAsLong();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%s: %6d ms (checksum %d)%n", label, elapsedMs, result);
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * A reusable block of parsed employee rows in primitive column form.
+ * The arrays are owned by the producer and overwritten by the next batch,
+ * so consumers must copy anything they want to keep.
+ */
+class EmployeeBatch {
+    final int[] ages;
+    final double[] salaries;
+    final String[] departments; // canonical instances, safe to compare with ==
+    int size;
+
+    EmployeeBatch(int capacity) {
+        this.ages = new int[capacity];
+        this.salaries = new double[capacity];
+        this.departments = new String[capacity];
+    }
+
+    public int size() { return size; }
+    public int capacity() { return ages.length; }
+    public int getAge(int row) { return ages[row]; }
+    public double getSalary(int row) { return salaries[row]; }
+    public String getDepartment(int row) { return departments[row]; }
+
+    /**
+     * Callback used by {@link EmployeeFileReader#forEachBatch}.
+     * May be invoked concurrently from several threads, each with its own batch.
+     */
+    @FunctionalInterface
+    interface Consumer {
+        void accept(EmployeeBatch batch);
+    }
+}
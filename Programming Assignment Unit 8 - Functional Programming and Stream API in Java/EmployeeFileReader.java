@@ -0,0 +1,288 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming reader for delimited employee exports (name, age, department, salary).
+ * <p>
+ * The file is memory-mapped in line-aligned chunks that can be parsed in
+ * parallel. Rows are handed out as they are parsed, so heap use does not grow
+ * with the file size. A chunk's mapping is released only when its buffer is
+ * garbage collected, so more chunks than workers may be mapped at once; that
+ * costs address space and page cache, not heap.
+ * Age and salary are parsed straight from the mapped bytes, and department
+ * names are canonicalized through a small per-chunk hash dictionary so
+ * repeated values do not allocate a new {@code String} per row. The
+ * dictionary holds at most {@link #MAX_DEPARTMENTS} names; rarer ones are
+ * decoded per row.
+ */
+class EmployeeFileReader {
+    static final int DEFAULT_CHUNK_SIZE = 64 << 20; // 64 MiB per mapped chunk
+    static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int SCAN_BUFFER_SIZE = 8 << 10; // read-ahead when looking for a line end
+    static final int MAX_DEPARTMENTS = 1024;              // per-chunk dictionary bound
+
+    private final Path path;
+    private final byte delimiter;
+    private final boolean skipHeader;
+    private final int chunkSize;
+
+    public EmployeeFileReader(Path path, char delimiter, boolean skipHeader, int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive.");
+        this.path = path;
+        this.delimiter = (byte) delimiter;
+        this.skipHeader = skipHeader;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reader with a header row and the delimiter chosen from the extension (.tsv = tab, otherwise comma).
+     */
+    public static EmployeeFileReader forFile(Path path) {
+        char delimiter = path.toString().toLowerCase().endsWith(".tsv") ? '\t' : ',';
+        return new EmployeeFileReader(path, delimiter, true, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Streams every row as an {@link Employee}. A parallel stream parses chunks concurrently.
+     */
+    public Stream<Employee> stream(boolean parallel) {
+        return StreamSupport.stream(chunks().spliterator(), parallel)
+                            .flatMap(chunk -> StreamSupport.stream(new ChunkParser(chunk).rows(), false));
+    }
+
+    /**
+     * Parses rows into primitive batches without creating {@link Employee} objects or name strings.
+     */
+    public void forEachBatch(int batchSize, boolean parallel, EmployeeBatch.Consumer consumer) {
+        Stream<long[]> chunks = parallel ? chunks().parallelStream() : chunks().stream();
+        chunks.forEach(chunk -> new ChunkParser(chunk).batches(batchSize, consumer));
+    }
+
+    /**
+     * Splits the file into [start, end) byte ranges that each end just after a newline.
+     */
+    List<long[]> chunks() {
+        List<long[]> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = skipHeader ? nextLineStart(channel, 0, size) : 0;
+            while (start < size) {
+                long end = start + chunkSize;
+                // Advance to the end of the line containing the tentative boundary
+                end = end < size ? nextLineStart(channel, end - 1, size) : size;
+                chunks.add(new long[]{start, end});
+                start = end;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + path, e);
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the offset just after the first newline at or after {@code from}, or {@code size} if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        for (long pos = from; pos < size; ) {
+            window.clear();
+            int read = channel.read(window, pos);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') return pos + i + 1;
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses one mapped chunk. Not thread-safe; each chunk gets its own parser.
+     */
+    private final class ChunkParser {
+        private final MappedByteBuffer buffer;
+        // Open-addressed department dictionary keyed by the raw bytes; power-of-two sized, at most half full
+        private byte[][] deptBytes = new byte[16][];
+        private String[] deptNames = new String[16];
+        private int[] deptHashes = new int[16];
+        private int deptCount;
+        private byte[] scratch = new byte[64];
+
+        // Fields of the row most recently parsed by nextRow()
+        private int nameStart, nameEnd, deptStart, deptEnd, age;
+        private double salary;
+
+        ChunkParser(long[] range) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to map " + path, e);
+            }
+        }
+
+        Spliterator<Employee> rows() {
+            return new Spliterators.AbstractSpliterator<Employee>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Employee> action) {
+                    if (!nextRow()) return false;
+                    action.accept(new Employee(decode(nameStart, nameEnd), age, department(), salary));
+                    return true;
+                }
+            };
+        }
+
+        void batches(int batchSize, EmployeeBatch.Consumer consumer) {
+            EmployeeBatch batch = new EmployeeBatch(batchSize);
+            while (nextRow()) {
+                int i = batch.size++;
+                batch.ages[i] = age;
+                batch.salaries[i] = salary;
+                batch.departments[i] = department();
+                if (batch.size == batchSize) {
+                    consumer.accept(batch);
+                    batch.size = 0;
+                }
+            }
+            if (batch.size > 0) consumer.accept(batch);
+        }
+
+        /**
+         * Reads the next non-blank line into the row fields.
+         * @return false when the chunk is exhausted.
+         */
+        private boolean nextRow() {
+            while (buffer.hasRemaining()) {
+                int lineStart = buffer.position();
+                int lineEnd = lineStart;
+                int limit = buffer.limit();
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') lineEnd++;
+                buffer.position(Math.min(lineEnd + 1, limit));
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') lineEnd--;
+                if (lineEnd == lineStart) continue; // blank line
+
+                int f1 = indexOf(lineStart, lineEnd);
+                int f2 = f1 < 0 ? -1 : indexOf(f1 + 1, lineEnd);
+                int f3 = f2 < 0 ? -1 : indexOf(f2 + 1, lineEnd);
+                // Age and salary must not be empty; the fast parsers would read an empty field as 0
+                if (f3 < 0 || f2 == f1 + 1 || lineEnd == f3 + 1) {
+                    throw new IllegalArgumentException("Malformed employee row: " + decode(lineStart, lineEnd));
+                }
+                nameStart = lineStart;
+                nameEnd = f1;
+                age = parseInt(f1 + 1, f2);
+                deptStart = f2 + 1;
+                deptEnd = f3;
+                salary = parseDouble(f3 + 1, lineEnd);
+                return true;
+            }
+            return false;
+        }
+
+        private int indexOf(int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == delimiter) return i;
+            }
+            return -1;
+        }
+
+        private int parseInt(int from, int to) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                byte b = buffer.get(i);
+                // Signs, spaces and values near overflow go to Integer.parseInt, which rejects out-of-range input
+                if (b < '0' || b > '9' || value > (Integer.MAX_VALUE - 9) / 10) return Integer.parseInt(decode(from, to).trim());
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        private double parseDouble(int from, int to) {
+            // Fast path for plain decimals such as 75000 or 75000.50
+            long digits = 0;
+            int scale = -1;
+            for (int i = from; i < to; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else if (b >= '0' && b <= '9' && i - from < 18) {
+                    digits = digits * 10 + (b - '0');
+                    if (scale >= 0) scale++;
+                } else {
+                    return Double.parseDouble(decode(from, to).trim());
+                }
+            }
+            return scale <= 0 ? digits : digits / Math.pow(10, scale);
+        }
+
+        private String department() {
+            int length = deptEnd - deptStart;
+            int hash = 0;
+            for (int i = deptStart; i < deptEnd; i++) hash = 31 * hash + buffer.get(i);
+            int mask = deptNames.length - 1;
+            int slot = mix(hash) & mask;
+            for (; deptNames[slot] != null; slot = (slot + 1) & mask) {
+                byte[] known = deptBytes[slot];
+                if (deptHashes[slot] == hash && known.length == length && matches(known, deptStart)) return deptNames[slot];
+            }
+            if (deptCount == MAX_DEPARTMENTS) return decode(deptStart, deptEnd);
+            String name = decode(deptStart, deptEnd).intern();
+            byte[] bytes = new byte[length];
+            buffer.get(deptStart, bytes, 0, length);
+            deptBytes[slot] = bytes;
+            deptNames[slot] = name;
+            deptHashes[slot] = hash;
+            if (++deptCount * 2 > deptNames.length) growDepartments();
+            return name;
+        }
+
+        private void growDepartments() {
+            byte[][] oldBytes = deptBytes;
+            String[] oldNames = deptNames;
+            int[] oldHashes = deptHashes;
+            deptBytes = new byte[oldNames.length * 2][];
+            deptNames = new String[oldNames.length * 2];
+            deptHashes = new int[oldNames.length * 2];
+            int mask = deptNames.length - 1;
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] == null) continue;
+                int slot = mix(oldHashes[i]) & mask;
+                while (deptNames[slot] != null) slot = (slot + 1) & mask;
+                deptBytes[slot] = oldBytes[i];
+                deptNames[slot] = oldNames[i];
+                deptHashes[slot] = oldHashes[i];
+            }
+        }
+
+        // Spreads the high bits down, as HashMap does, so short names do not cluster in the low slots
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private boolean matches(byte[] known, int offset) {
+            for (int i = 0; i < known.length; i++) {
+                if (buffer.get(offset + i) != known[i]) return false;
+            }
+            return true;
+        }
+
+        private String decode(int from, int to) {
+            int length = to - from;
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(from, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
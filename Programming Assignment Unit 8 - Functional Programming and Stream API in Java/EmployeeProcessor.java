@@ -1,39 +1,24 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-/**
- * Represents an Employee in the organization.
- */
-class Employee {
-    private String name;
-    private int age;
-    private String department;
-    private double salary;
-
-    public Employee(String name, int age, String department, double salary) {
-        this.name = name;
-        this.age = age;
-        this.department = department;
-        this.salary = salary;
-    }
+public class EmployeeProcessor {
 
-    // Getters
-    public String getName() { return name; }
-    public int getAge() { return age; }
-    public String getDepartment() { return department; }
-    public double getSalary() { return salary; }
+    // Instrumentation (see ../Metrics.java)
+    private static final Metrics.LatencyHistogram aggregationLatency = Metrics.histogram("employee.aggregate.latency");
 
-    @Override
-    public String toString() {
-        return String.format("Employee[Name=%s, Age=%d, Dept=%s, Salary=%.2f]", 
-                             name, age, department, salary);
-    }
-}
+    public static void main(String[] args) {
+        Metrics.startDumpFromSystemProperties();
 
-public class EmployeeProcessor {
+        // Optional: process a CSV/TSV export (name, age, department, salary) instead of the sample data
+        if (args.length > 0) {
+            processFile(Paths.get(args[0]));
+            return;
+        }
 
-    public static void main(String[] args) {
         // 1. Develop program and store dataset in a collection
         List<Employee> employees = Arrays.asList(
             new Employee("Alice Smith", 28, "Engineering", 75000),
@@ -63,23 +48,119 @@ public class EmployeeProcessor {
         System.out.println("\n--- Concatenated Info (Age > " + ageThreshold + ") ---");
         transformedData.forEach(System.out::println);
 
-        // 4. Find the average salary using stream's built-in functions
-        OptionalDouble averageSalary = employees.stream()
-            .mapToDouble(Employee::getSalary)
-            .average();
+        // 4. Find the average salary using a single-pass aggregation
+        // EmployeeStatistics computes salary/age statistics and the department
+        // breakdown together, instead of streaming the list once per question.
+        long aggregationStart = System.nanoTime();
+        EmployeeStatistics stats = EmployeeStatistics.of(employees, false);
+        aggregationLatency.recordSince(aggregationStart);
+        OptionalDouble averageSalary = stats.getOverall().getCount() == 0
+            ? OptionalDouble.empty()
+            : OptionalDouble.of(stats.getOverall().getAverageSalary());
 
         if (averageSalary.isPresent()) {
             System.out.printf("\nAverage Salary of all Employees: $%.2f%n", averageSalary.getAsDouble());
         }
 
         // ADDITIONAL FEATURE: Grouping Employees by Department
-        // This demonstrates the versatility of Streams beyond simple filtering.
-        Map<String, List<Employee>> employeesByDept = employees.stream()
-            .collect(Collectors.groupingBy(Employee::getDepartment));
+        // The per-department summaries come from the same pass as the average.
+        Map<String, EmployeeSummary> employeesByDept = stats.getByDepartment();
 
         System.out.println("\n--- Bonus: Employee Count by Department ---");
-        employeesByDept.forEach((dept, list) -> 
-            System.out.println(dept + ": " + list.size() + " employee(s)"));
+        employeesByDept.forEach((dept, summary) -> 
+            System.out.println(dept + ": " + summary.getCount() + " employee(s)"));
+
+        // ADDITIONAL FEATURE: Several reports answered by one shared scan
+        EmployeeTable table = EmployeeTable.of(employees);
+        List<EmployeeQuery> reports = List.of(
+            EmployeeQuery.where(EmployeeQuery.Condition.ageAbove(ageThreshold)).select(nameDeptFormatter),
+            EmployeeQuery.where(EmployeeQuery.Condition.ageAbove(ageThreshold))
+                         .groupBy(EmployeeQuery.Column.DEPARTMENT)
+                         .agg(EmployeeQuery.Aggregate.avg(EmployeeQuery.Column.SALARY), EmployeeQuery.Aggregate.count()),
+            EmployeeQuery.all().agg(EmployeeQuery.Aggregate.min(EmployeeQuery.Column.SALARY),
+                                    EmployeeQuery.Aggregate.max(EmployeeQuery.Column.SALARY))
+        );
+        List<EmployeeQuery.Result> results = EmployeeQuery.execute(table, false, reports);
+
+        System.out.println("\n--- Bonus: Query Reports (single scan) ---");
+        System.out.println(results.get(0));
+        System.out.println(results.get(1));
+        System.out.println(results.get(2));
+
+        // ADDITIONAL FEATURE: Department statistics maintained from change events
+        // The view is built once; a raise and a transfer then update it without regrouping.
+        DepartmentStatsView liveStats = DepartmentStatsView.of(employees);
+        Employee raised = employees.get(3);
+        liveStats.onSalaryChange(raised.getDepartment(), raised.getSalary(), raised.getSalary() + 4000);
+        Employee transferred = employees.get(1);
+        liveStats.onTransfer(transferred, "Sales");
+
+        System.out.println("\n--- Bonus: Live Department Statistics (raise for " + raised.getName()
+            + ", " + transferred.getName() + " moved to Sales) ---");
+        new TreeMap<>(liveStats.snapshot()).values().forEach(System.out::println);
+    }
+
+    /**
+     * Runs the same questions over a delimited file without loading it into memory.
+     * Rows are streamed from {@link EmployeeFileReader} and aggregated in parallel.
+     */
+    private static void processFile(Path file) {
+        EmployeeFileReader reader = EmployeeFileReader.forFile(file);
+        int ageThreshold = 30;
+        int previewLimit = 10;
+
+        System.out.println("--- Concatenated Info (Age > " + ageThreshold + ", first " + previewLimit + ") ---");
+        try (Stream<Employee> rows = reader.stream(false)) {
+            rows.filter(emp -> emp.getAge() > ageThreshold)
+                .map(emp -> "Name: " + emp.getName() + " | Dept: " + emp.getDepartment())
+                .limit(previewLimit)
+                .forEach(System.out::println);
+        }
+
+        // Statistics, salary quantiles and top earners, overall and per department, share one parallel pass over the file
+        record FileReport(EmployeeStatistics stats, SalarySketch quantiles, List<Employee> topEarners,
+                          Map<String, SalarySketch> departmentQuantiles, Map<String, List<Employee>> departmentTopEarners) {}
+        FileReport report;
+        long aggregationStart = System.nanoTime();
+        try (Stream<Employee> rows = reader.stream(true)) {
+            report = rows.collect(Collectors.teeing(
+                Collectors.teeing(
+                    EmployeeStatistics.collector(),
+                    Collectors.teeing(SalaryCollectors.quantiles(SalarySketch.DEFAULT_K), SalaryCollectors.topK(5), Map::entry),
+                    Map::entry),
+                Collectors.teeing(SalaryCollectors.quantilesByDepartment(SalarySketch.DEFAULT_K), SalaryCollectors.topKByDepartment(1), Map::entry),
+                (overall, byDept) -> new FileReport(overall.getKey(), overall.getValue().getKey(), overall.getValue().getValue(),
+                                                    byDept.getKey(), byDept.getValue())));
+        }
+        aggregationLatency.recordSince(aggregationStart);
+        EmployeeStatistics stats = report.stats();
+        SalarySketch salaryQuantiles = report.quantiles();
+        List<Employee> topEarners = report.topEarners();
+
+        System.out.println("\n--- Summary of " + file.getFileName() + " ---");
+        System.out.println(stats.getOverall());
+        System.out.printf("Average Salary of all Employees: $%.2f%n", stats.getOverall().getAverageSalary());
+        if (salaryQuantiles.getCount() == 0) {
+            System.out.println("Salary Median: n/a | p90: n/a | p99: n/a (no rows)");
+        } else {
+            System.out.printf("Salary Median: $%.2f | p90: $%.2f | p99: $%.2f (approximate)%n",
+                              salaryQuantiles.quantile(0.5), salaryQuantiles.quantile(0.9), salaryQuantiles.quantile(0.99));
+        }
+
+        System.out.println("\n--- Top " + topEarners.size() + " Earners ---");
+        topEarners.forEach(System.out::println);
+
+        System.out.println("\n--- Employee Count by Department ---");
+        stats.getByDepartment().forEach((dept, summary) ->
+            System.out.println(dept + ": " + summary.getCount() + " employee(s)"));
+
+        System.out.println("\n--- Salary by Department (median | p90 | top earner) ---");
+        stats.getByDepartment().keySet().forEach(dept -> {
+            SalarySketch sketch = report.departmentQuantiles().get(dept);
+            Employee top = report.departmentTopEarners().get(dept).get(0);
+            System.out.printf("%s: $%.2f | $%.2f | %s ($%.2f)%n",
+                              dept, sketch.quantile(0.5), sketch.quantile(0.9), top.getName(), top.getSalary());
+        });
     }
 }
 
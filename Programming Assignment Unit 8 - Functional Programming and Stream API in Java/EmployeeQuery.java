@@ -0,0 +1,378 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Small composable query API over an {@link EmployeeTable}, e.g.
+ * <pre>
+ *   EmployeeQuery.where(Condition.ageAbove(30))
+ *                .groupBy(Column.DEPARTMENT)
+ *                .agg(Aggregate.avg(Column.SALARY), Aggregate.count());
+ * </pre>
+ * Queries are immutable descriptions. {@link #execute} plans them against a
+ * table: conditions are bound to primitive columns (department names are
+ * resolved to dictionary ids once) and ordered cheapest-first, all aggregates
+ * of a query are fused into a single accumulator update, and every query in
+ * the batch is evaluated during one shared scan of the rows. The scan can
+ * optionally be split across the common fork/join pool.
+ */
+class EmployeeQuery {
+
+    enum Column { AGE, SALARY, DEPARTMENT }
+
+    private final List<Condition> conditions;
+    private final boolean groupByDepartment;
+    private final List<Aggregate> aggregates;
+    private final Function<Employee, ?> projection;
+
+    private EmployeeQuery(List<Condition> conditions, boolean groupByDepartment,
+                          List<Aggregate> aggregates, Function<Employee, ?> projection) {
+        this.conditions = conditions;
+        this.groupByDepartment = groupByDepartment;
+        this.aggregates = aggregates;
+        this.projection = projection;
+    }
+
+    // --- Builder Methods ---
+
+    public static EmployeeQuery all() {
+        return new EmployeeQuery(Collections.emptyList(), false, Collections.emptyList(), null);
+    }
+
+    public static EmployeeQuery where(Condition condition) {
+        return all().and(condition);
+    }
+
+    public EmployeeQuery and(Condition condition) {
+        List<Condition> combined = new ArrayList<>(conditions);
+        combined.add(condition);
+        return new EmployeeQuery(Collections.unmodifiableList(combined), groupByDepartment, aggregates, projection);
+    }
+
+    public EmployeeQuery groupBy(Column column) {
+        if (column != Column.DEPARTMENT) {
+            throw new IllegalArgumentException("Only DEPARTMENT can be used as a grouping column.");
+        }
+        if (projection != null) throw new IllegalStateException("A query either projects rows or aggregates them.");
+        return new EmployeeQuery(conditions, true, aggregates, null);
+    }
+
+    public EmployeeQuery agg(Aggregate... aggregates) {
+        if (projection != null) throw new IllegalStateException("A query either projects rows or aggregates them.");
+        return new EmployeeQuery(conditions, groupByDepartment, List.of(aggregates), null);
+    }
+
+    /**
+     * Turns the query into a row projection, e.g. {@code select(nameDeptFormatter)}.
+     */
+    public EmployeeQuery select(Function<Employee, ?> projection) {
+        if (!aggregates.isEmpty() || groupByDepartment) {
+            throw new IllegalStateException("A query either projects rows or aggregates them.");
+        }
+        return new EmployeeQuery(conditions, false, Collections.emptyList(), projection);
+    }
+
+    // --- Execution ---
+
+    public Result execute(EmployeeTable table) {
+        return execute(table, false, List.of(this)).get(0);
+    }
+
+    /**
+     * Runs several independent queries over a single scan of the table.
+     * @param parallel split the scan into row ranges on the common fork/join pool.
+     * @return one result per query, in the same order.
+     */
+    public static List<Result> execute(EmployeeTable table, boolean parallel, List<EmployeeQuery> queries) {
+        Plan[] plans = queries.stream().map(q -> new Plan(q, table)).toArray(Plan[]::new);
+
+        int size = table.size();
+        int tasks = parallel ? Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, size / Plan.MIN_ROWS_PER_TASK)) : 1;
+        int step = (size + tasks - 1) / Math.max(tasks, 1);
+
+        IntStream taskIds = IntStream.range(0, tasks);
+        List<Object[]> partials = (parallel ? taskIds.parallel() : taskIds)
+            .mapToObj(t -> scan(table, plans, t * step, Math.min(size, (t + 1) * step)))
+            .collect(Collectors.toList()); // encounter order keeps projections in row order
+
+        List<Result> results = new ArrayList<>(plans.length);
+        for (int q = 0; q < plans.length; q++) {
+            Object merged = partials.get(0)[q];
+            for (int t = 1; t < partials.size(); t++) {
+                merged = plans[q].merge(merged, partials.get(t)[q]);
+            }
+            results.add(plans[q].finish(merged, table));
+        }
+        return results;
+    }
+
+    private static Object[] scan(EmployeeTable table, Plan[] plans, int from, int to) {
+        Object[] states = new Object[plans.length];
+        for (int q = 0; q < plans.length; q++) states[q] = plans[q].newState();
+        for (int row = from; row < to; row++) {
+            for (int q = 0; q < plans.length; q++) {
+                plans[q].accept(states[q], table, row);
+            }
+        }
+        return states;
+    }
+
+    // --- Conditions ---
+
+    /**
+     * A filter on one column. Evaluated against primitive columns once bound to a table.
+     */
+    static final class Condition {
+        private final Column column;
+        private final boolean greater; // true: value > operand, false: value <= operand (ignored for DEPARTMENT)
+        private final double operand;
+        private final String department;
+
+        private Condition(Column column, boolean greater, double operand, String department) {
+            this.column = column;
+            this.greater = greater;
+            this.operand = operand;
+            this.department = department;
+        }
+
+        public static Condition ageAbove(int age) { return new Condition(Column.AGE, true, age, null); }
+        public static Condition ageAtMost(int age) { return new Condition(Column.AGE, false, age, null); }
+        public static Condition salaryAbove(double salary) { return new Condition(Column.SALARY, true, salary, null); }
+        public static Condition salaryAtMost(double salary) { return new Condition(Column.SALARY, false, salary, null); }
+        public static Condition inDepartment(String department) { return new Condition(Column.DEPARTMENT, false, 0, department); }
+
+        // Lower runs first: an int compare on the dictionary id is cheapest and usually most selective
+        int cost() { return column == Column.DEPARTMENT ? 0 : column == Column.AGE ? 1 : 2; }
+
+        @Override
+        public String toString() {
+            return column == Column.DEPARTMENT ? "department = " + department
+                 : column.name().toLowerCase() + (greater ? " > " : " <= ") + operand;
+        }
+    }
+
+    // --- Aggregates ---
+
+    static final class Aggregate {
+        enum Op { COUNT, SUM, AVG, MIN, MAX }
+
+        private final Op op;
+        private final Column column;
+
+        private Aggregate(Op op, Column column) {
+            if (op != Op.COUNT && column == Column.DEPARTMENT) {
+                throw new IllegalArgumentException("Cannot aggregate the DEPARTMENT column numerically.");
+            }
+            this.op = op;
+            this.column = column;
+        }
+
+        public static Aggregate count() { return new Aggregate(Op.COUNT, null); }
+        public static Aggregate sum(Column column) { return new Aggregate(Op.SUM, column); }
+        public static Aggregate avg(Column column) { return new Aggregate(Op.AVG, column); }
+        public static Aggregate min(Column column) { return new Aggregate(Op.MIN, column); }
+        public static Aggregate max(Column column) { return new Aggregate(Op.MAX, column); }
+
+        /** @return true if the value is always a whole number (counts, and sum/min/max of ages). */
+        boolean isIntegral() {
+            return op == Op.COUNT || (column == Column.AGE && op != Op.AVG);
+        }
+
+        @Override
+        public String toString() {
+            return op == Op.COUNT ? "count" : op.name().toLowerCase() + "(" + column.name().toLowerCase() + ")";
+        }
+    }
+
+    // --- Results ---
+
+    /**
+     * Output of a query: either aggregate rows keyed by group ("*" when ungrouped)
+     * or the projected values of the matching employees.
+     */
+    static final class Result {
+        private final List<String> labels;
+        private final Map<String, double[]> groups;
+        private final List<Object> rows;
+        private final boolean[] integral; // per label: print without decimals
+
+        private Result(List<String> labels, boolean[] integral, Map<String, double[]> groups, List<Object> rows) {
+            this.labels = labels;
+            this.integral = integral;
+            this.groups = groups;
+            this.rows = rows;
+        }
+
+        public List<String> getLabels() { return labels; }
+        public Map<String, double[]> getGroups() { return groups; }
+        public List<Object> getRows() { return rows; }
+
+        @Override
+        public String toString() {
+            if (rows != null) {
+                return rows.stream().map(String::valueOf).collect(Collectors.joining(System.lineSeparator()));
+            }
+            StringBuilder sb = new StringBuilder();
+            groups.forEach((group, values) -> {
+                if (sb.length() > 0) sb.append(System.lineSeparator());
+                sb.append(group).append(':');
+                for (int i = 0; i < values.length; i++) {
+                    sb.append(' ').append(labels.get(i)).append('=').append((integral[i] ? String.valueOf((long) values[i]) : String.format("%.2f", values[i])));
+                }
+            });
+            return sb.toString();
+        }
+    }
+
+    // --- Planning ---
+
+    /**
+     * A query bound to a specific table. Aggregate state per group is a flat
+     * double[]: slot 0 holds the row count, followed by one slot per aggregate.
+     */
+    private static final class Plan {
+        static final int MIN_ROWS_PER_TASK = 1 << 16;
+
+        private final EmployeeQuery query;
+        private final Column[] filterColumns;
+        private final boolean[] filterGreater;
+        private final double[] filterOperands;
+        private final boolean matchesNothing;
+        private final int groups;
+
+        Plan(EmployeeQuery query, EmployeeTable table) {
+            this.query = query;
+            List<Condition> ordered = new ArrayList<>(query.conditions);
+            ordered.sort(Comparator.comparingInt(Condition::cost));
+
+            int n = ordered.size();
+            filterColumns = new Column[n];
+            filterGreater = new boolean[n];
+            filterOperands = new double[n];
+            boolean empty = false;
+            for (int i = 0; i < n; i++) {
+                Condition c = ordered.get(i);
+                filterColumns[i] = c.column;
+                filterGreater[i] = c.greater;
+                if (c.column == Column.DEPARTMENT) {
+                    int id = table.departmentIdOf(c.department);
+                    empty |= id < 0; // unknown department: nothing can match, skip the query entirely
+                    filterOperands[i] = id;
+                } else {
+                    filterOperands[i] = c.operand;
+                }
+            }
+            matchesNothing = empty;
+            groups = query.groupByDepartment ? table.departmentCount() : 1;
+        }
+
+        Object newState() {
+            if (query.projection != null) return new ArrayList<>();
+            int width = 1 + query.aggregates.size();
+            double[][] state = new double[groups][width];
+            for (double[] group : state) {
+                for (int a = 0; a < query.aggregates.size(); a++) {
+                    Aggregate.Op op = query.aggregates.get(a).op;
+                    group[1 + a] = op == Aggregate.Op.MIN ? Double.POSITIVE_INFINITY
+                                 : op == Aggregate.Op.MAX ? Double.NEGATIVE_INFINITY : 0;
+                }
+            }
+            return state;
+        }
+
+        @SuppressWarnings("unchecked")
+        void accept(Object state, EmployeeTable table, int row) {
+            if (matchesNothing || !test(table, row)) return;
+            if (query.projection != null) {
+                ((List<Object>) state).add(query.projection.apply(table.get(row)));
+                return;
+            }
+            double[] group = ((double[][]) state)[query.groupByDepartment ? table.getDepartmentId(row) : 0];
+            group[0]++;
+            for (int a = 0; a < query.aggregates.size(); a++) {
+                Aggregate agg = query.aggregates.get(a);
+                if (agg.op == Aggregate.Op.COUNT) continue;
+                double value = agg.column == Column.AGE ? table.getAge(row) : table.getSalary(row);
+                switch (agg.op) {
+                    case MIN: group[1 + a] = Math.min(group[1 + a], value); break;
+                    case MAX: group[1 + a] = Math.max(group[1 + a], value); break;
+                    default: group[1 + a] += value; // SUM and AVG
+                }
+            }
+        }
+
+        private boolean test(EmployeeTable table, int row) {
+            for (int i = 0; i < filterColumns.length; i++) {
+                switch (filterColumns[i]) {
+                    case DEPARTMENT:
+                        if (table.getDepartmentId(row) != (int) filterOperands[i]) return false;
+                        break;
+                    case AGE:
+                        if ((table.getAge(row) > filterOperands[i]) != filterGreater[i]) return false;
+                        break;
+                    default:
+                        if ((table.getSalary(row) > filterOperands[i]) != filterGreater[i]) return false;
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Object merge(Object left, Object right) {
+            if (query.projection != null) {
+                ((List<Object>) left).addAll((List<Object>) right);
+                return left;
+            }
+            double[][] a = (double[][]) left, b = (double[][]) right;
+            for (int g = 0; g < groups; g++) {
+                a[g][0] += b[g][0];
+                for (int i = 0; i < query.aggregates.size(); i++) {
+                    switch (query.aggregates.get(i).op) {
+                        case MIN: a[g][1 + i] = Math.min(a[g][1 + i], b[g][1 + i]); break;
+                        case MAX: a[g][1 + i] = Math.max(a[g][1 + i], b[g][1 + i]); break;
+                        default: a[g][1 + i] += b[g][1 + i];
+                    }
+                }
+            }
+            return left;
+        }
+
+        @SuppressWarnings("unchecked")
+        Result finish(Object state, EmployeeTable table) {
+            if (query.projection != null) return new Result(Collections.emptyList(), new boolean[0], null, (List<Object>) state);
+
+            List<String> labels = query.aggregates.stream().map(Aggregate::toString).collect(Collectors.toList());
+            boolean[] integral = new boolean[labels.size()];
+            for (int a = 0; a < integral.length; a++) integral[a] = query.aggregates.get(a).isIntegral();
+            Map<String, double[]> out = new LinkedHashMap<>();
+            double[][] groupState = (double[][]) state;
+            for (int g = 0; g < groups; g++) {
+                double count = groupState[g][0];
+                if (query.groupByDepartment && count == 0) continue;
+                double[] values = new double[query.aggregates.size()];
+                for (int a = 0; a < values.length; a++) {
+                    Aggregate.Op op = query.aggregates.get(a).op;
+                    double raw = groupState[g][1 + a];
+                    values[a] = op == Aggregate.Op.COUNT ? count
+                              : op == Aggregate.Op.AVG ? (count == 0 ? 0 : raw / count)
+                              : (op == Aggregate.Op.MIN || op == Aggregate.Op.MAX) && count == 0 ? 0 : raw;
+                }
+                out.put(query.groupByDepartment ? table.departmentName(g) : "*", values);
+            }
+            return new Result(labels, integral, out, null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeQuery[where=" + conditions + ", groupByDepartment=" + groupByDepartment
+             + ", aggregates=" + aggregates + ", projection=" + (projection != null) + "]";
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Single-pass aggregation engine: computes the overall {@link EmployeeSummary}
+ * and a per-department breakdown in one traversal of the data.
+ * <p>
+ * With a parallel stream each worker thread fills its own accumulator and the
+ * partial results are merged once at the end, so there is no shared state or
+ * locking on the hot path.
+ */
+class EmployeeStatistics {
+    private final EmployeeSummary overall = new EmployeeSummary();
+    private final Map<String, EmployeeSummary> byDepartment = new HashMap<>();
+
+    void accept(Employee emp) {
+        overall.accept(emp.getAge(), emp.getSalary());
+        byDepartment.computeIfAbsent(emp.getDepartment(), d -> new EmployeeSummary())
+                    .accept(emp.getAge(), emp.getSalary());
+    }
+
+    EmployeeStatistics combine(EmployeeStatistics other) {
+        overall.combine(other.overall);
+        other.byDepartment.forEach((dept, summary) ->
+            byDepartment.computeIfAbsent(dept, d -> new EmployeeSummary()).combine(summary));
+        return this;
+    }
+
+    // Getters
+    public EmployeeSummary getOverall() { return overall; }
+    public Map<String, EmployeeSummary> getByDepartment() { return byDepartment; }
+
+    /**
+     * Collector usable with both sequential and parallel streams.
+     */
+    public static Collector<Employee, ?, EmployeeStatistics> collector() {
+        return Collector.of(EmployeeStatistics::new, EmployeeStatistics::accept, EmployeeStatistics::combine,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Aggregates a collection, optionally splitting the work across the common fork/join pool.
+     */
+    public static EmployeeStatistics of(Collection<Employee> employees, boolean parallel) {
+        return (parallel ? employees.parallelStream() : employees.stream()).collect(collector());
+    }
+}
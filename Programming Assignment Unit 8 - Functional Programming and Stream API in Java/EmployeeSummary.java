@@ -0,0 +1,50 @@
+/**
+ * Running count, sum, min, max and average over salary and age.
+ * Instances are mutable and not thread-safe; use one per thread and merge.
+ */
+class EmployeeSummary {
+    private long count;
+    private double salarySum;
+    private double salaryMin = Double.POSITIVE_INFINITY;
+    private double salaryMax = Double.NEGATIVE_INFINITY;
+    private long ageSum;
+    private int ageMin = Integer.MAX_VALUE;
+    private int ageMax = Integer.MIN_VALUE;
+
+    void accept(int age, double salary) {
+        count++;
+        salarySum += salary;
+        if (salary < salaryMin) salaryMin = salary;
+        if (salary > salaryMax) salaryMax = salary;
+        ageSum += age;
+        if (age < ageMin) ageMin = age;
+        if (age > ageMax) ageMax = age;
+    }
+
+    void combine(EmployeeSummary other) {
+        count += other.count;
+        salarySum += other.salarySum;
+        salaryMin = Math.min(salaryMin, other.salaryMin);
+        salaryMax = Math.max(salaryMax, other.salaryMax);
+        ageSum += other.ageSum;
+        ageMin = Math.min(ageMin, other.ageMin);
+        ageMax = Math.max(ageMax, other.ageMax);
+    }
+
+    // Getters (min/max/average are 0 when no employee was counted)
+    public long getCount() { return count; }
+    public double getSalarySum() { return salarySum; }
+    public double getSalaryMin() { return count == 0 ? 0 : salaryMin; }
+    public double getSalaryMax() { return count == 0 ? 0 : salaryMax; }
+    public double getAverageSalary() { return count == 0 ? 0 : salarySum / count; }
+    public int getAgeMin() { return count == 0 ? 0 : ageMin; }
+    public int getAgeMax() { return count == 0 ? 0 : ageMax; }
+    public double getAverageAge() { return count == 0 ? 0 : (double) ageSum / count; }
+
+    @Override
+    public String toString() {
+        return String.format("Count=%d, Salary[avg=%.2f, min=%.2f, max=%.2f], Age[avg=%.1f, min=%d, max=%d]",
+                             count, getAverageSalary(), getSalaryMin(), getSalaryMax(),
+                             getAverageAge(), getAgeMin(), getAgeMax());
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented employee dataset.
+ * <p>
+ * Ages, salaries and department ids are stored in parallel primitive arrays,
+ * with departments dictionary-encoded against a small string table. Filters
+ * and aggregates are indexed loops over these arrays instead of a virtual
+ * getter call per object; salary totals and age-filtered salary averages run on
+ * {@link MaskedKernels}, which uses the Vector API when it is available.
+ * {@link #get(int)} and {@link #stream()} provide {@link Employee} views for
+ * code written against the row model.
+ */
+class EmployeeTable {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final MaskedKernels KERNELS = MaskedKernels.get();
+
+    private String[] names;
+    private int[] ages;
+    private double[] salaries;
+    private int[] departmentIds;
+    private int size;
+
+    // Department dictionary: id -> name and name -> id
+    private String[] departments = new String[8];
+    private final Map<String, Integer> departmentIndex = new HashMap<>();
+
+    public EmployeeTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EmployeeTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        names = new String[capacity];
+        ages = new int[capacity];
+        salaries = new double[capacity];
+        departmentIds = new int[capacity];
+    }
+
+    public static EmployeeTable of(Collection<Employee> employees) {
+        EmployeeTable table = new EmployeeTable(employees.size());
+        employees.forEach(table::add);
+        return table;
+    }
+
+    /**
+     * Loads a file through the primitive batch API; names are not read and stay null.
+     */
+    public static EmployeeTable load(EmployeeFileReader reader) {
+        EmployeeTable table = new EmployeeTable();
+        reader.forEachBatch(EmployeeFileReader.DEFAULT_BATCH_SIZE, false, table::addBatch);
+        return table;
+    }
+
+    // --- Loading ---
+
+    public void add(Employee emp) {
+        add(emp.getName(), emp.getAge(), emp.getDepartment(), emp.getSalary());
+    }
+
+    public void add(String name, int age, String department, double salary) {
+        ensureCapacity(size + 1);
+        names[size] = name;
+        ages[size] = age;
+        salaries[size] = salary;
+        departmentIds[size] = departmentId(department);
+        size++;
+    }
+
+    void addBatch(EmployeeBatch batch) {
+        int n = batch.size();
+        ensureCapacity(size + n);
+        System.arraycopy(batch.ages, 0, ages, size, n);
+        System.arraycopy(batch.salaries, 0, salaries, size, n);
+        for (int i = 0; i < n; i++) {
+            departmentIds[size + i] = departmentId(batch.departments[i]);
+        }
+        size += n;
+    }
+
+    private int departmentId(String department) {
+        Integer id = departmentIndex.get(department);
+        if (id != null) return id;
+        int newId = departmentIndex.size();
+        if (newId == departments.length) departments = Arrays.copyOf(departments, newId * 2);
+        departments[newId] = department;
+        departmentIndex.put(department, newId);
+        return newId;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ages.length) return;
+        int capacity = Math.max(required, ages.length + (ages.length >> 1));
+        names = Arrays.copyOf(names, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        departmentIds = Arrays.copyOf(departmentIds, capacity);
+    }
+
+    // --- Columns & Dictionary ---
+
+    public int size() { return size; }
+    public int departmentCount() { return departmentIndex.size(); }
+    public String departmentName(int id) { return departments[id]; }
+
+    /** @return the dictionary id of a department, or -1 if it does not occur in the table. */
+    public int departmentIdOf(String department) {
+        return departmentIndex.getOrDefault(department, -1);
+    }
+
+    public int getAge(int row) { return ages[row]; }
+    public double getSalary(int row) { return salaries[row]; }
+    public int getDepartmentId(int row) { return departmentIds[row]; }
+
+    // Raw column access for kernels; only the first size() entries are valid
+    int[] ageColumn() { return ages; }
+    double[] salaryColumn() { return salaries; }
+    int[] departmentColumn() { return departmentIds; }
+
+    // --- Employee Views ---
+
+    public Employee get(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        return new Employee(names[row], ages[row], departments[departmentIds[row]], salaries[row]);
+    }
+
+    public Stream<Employee> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    // --- Primitive Kernels ---
+
+    public int countAgeAbove(int threshold) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += ages[i] > threshold ? 1 : 0;
+        }
+        return count;
+    }
+
+    /** @return the row indexes whose age is above the threshold, in row order. */
+    public int[] selectAgeAbove(int threshold) {
+        int[] rows = new int[countAgeAbove(threshold)];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (ages[i] > threshold) rows[n++] = i;
+        }
+        return rows;
+    }
+
+    public double salarySum() {
+        return KERNELS.summarize(salaries, 0, size).getSum();
+    }
+
+    public double averageSalary() {
+        return size == 0 ? 0 : salarySum() / size;
+    }
+
+    public double averageSalaryWhereAgeAbove(int threshold) {
+        // getAverage() is 0 when no row matches
+        return KERNELS.summarizeWhereAbove(salaries, ages, 0, size, threshold).getAverage();
+    }
+
+    /** @return employee counts indexed by department id. */
+    public int[] countByDepartment() {
+        int[] counts = new int[departmentCount()];
+        for (int i = 0; i < size; i++) {
+            counts[departmentIds[i]]++;
+        }
+        return counts;
+    }
+
+    /** @return salary totals indexed by department id. */
+    public double[] salarySumByDepartment() {
+        double[] sums = new double[departmentCount()];
+        for (int i = 0; i < size; i++) {
+            sums[departmentIds[i]] += salaries[i];
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Bounded-memory salary collectors for compensation reviews.
+ * <p>
+ * Top-K collectors keep a min-heap of at most {@code k} employees per group,
+ * so memory is O(k) per department and each row costs O(log k). Quantile
+ * collectors feed a {@link SalarySketch}; see that class for its accuracy
+ * and memory bounds. All collectors are safe for parallel streams: every
+ * worker builds its own heaps or sketches and they are merged at the end.
+ */
+final class SalaryCollectors {
+    private static final Comparator<Employee> BY_SALARY = Comparator.comparingDouble(Employee::getSalary);
+
+    private SalaryCollectors() {}
+
+    /**
+     * @return the {@code k} highest-paid employees, highest salary first.
+     */
+    public static Collector<Employee, ?, List<Employee>> topK(int k) {
+        checkK(k);
+        return Collector.of(
+            () -> new PriorityQueue<>(k + 1, BY_SALARY),
+            (heap, emp) -> offer(heap, emp, k),
+            (left, right) -> { right.forEach(emp -> offer(left, emp, k)); return left; },
+            SalaryCollectors::descending,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return per department, the {@code k} highest-paid employees, highest salary first.
+     */
+    public static Collector<Employee, ?, Map<String, List<Employee>>> topKByDepartment(int k) {
+        checkK(k);
+        return Collector.<Employee, Map<String, PriorityQueue<Employee>>, Map<String, List<Employee>>>of(
+            HashMap::new,
+            (heaps, emp) -> offer(heaps.computeIfAbsent(emp.getDepartment(), d -> new PriorityQueue<>(k + 1, BY_SALARY)), emp, k),
+            (left, right) -> {
+                right.forEach((dept, heap) -> heap.forEach(emp ->
+                    offer(left.computeIfAbsent(dept, d -> new PriorityQueue<>(k + 1, BY_SALARY)), emp, k)));
+                return left;
+            },
+            heaps -> {
+                Map<String, List<Employee>> result = new HashMap<>();
+                heaps.forEach((dept, heap) -> result.put(dept, descending(heap)));
+                return result;
+            },
+            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return a quantile sketch of all salaries with accuracy parameter {@code k}.
+     */
+    public static Collector<Employee, ?, SalarySketch> quantiles(int k) {
+        return Collector.of(
+            () -> new SalarySketch(k),
+            (sketch, emp) -> sketch.accept(emp.getSalary()),
+            SalarySketch::merge,
+            Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return one quantile sketch per department.
+     */
+    public static Collector<Employee, ?, Map<String, SalarySketch>> quantilesByDepartment(int k) {
+        return Collector.<Employee, Map<String, SalarySketch>>of(
+            HashMap::new,
+            (sketches, emp) -> sketches.computeIfAbsent(emp.getDepartment(), d -> new SalarySketch(k)).accept(emp.getSalary()),
+            (left, right) -> {
+                right.forEach((dept, sketch) -> left.merge(dept, sketch, SalarySketch::merge));
+                return left;
+            },
+            Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    private static void offer(PriorityQueue<Employee> heap, Employee emp, int k) {
+        if (heap.size() < k) {
+            heap.add(emp);
+        } else if (emp.getSalary() > heap.peek().getSalary()) {
+            heap.poll();
+            heap.add(emp);
+        }
+    }
+
+    private static List<Employee> descending(PriorityQueue<Employee> heap) {
+        List<Employee> result = new ArrayList<>(heap);
+        result.sort(BY_SALARY.reversed());
+        return result;
+    }
+
+    private static void checkK(int k) {
+        if (k <= 0) throw new IllegalArgumentException("k must be positive.");
+    }
+}
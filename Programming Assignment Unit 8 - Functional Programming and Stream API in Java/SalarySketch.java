@@ -0,0 +1,181 @@
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mergeable streaming quantile sketch (KLL) for salaries.
+ * <p>
+ * Values are kept in a stack of compactors; compactor {@code h} holds items
+ * of weight 2^h. When the sketch is full, the lowest full compactor is
+ * sorted and every other item (random offset) is promoted one level up.
+ * <p>
+ * Accuracy and memory: with accuracy parameter {@code k} the sketch retains
+ * at most about {@code 3k + log2(n/k)} doubles regardless of the number of
+ * values n, and the normalized rank error of a quantile query is roughly
+ * {@code 1.7 / k^0.9}: about 1.7% for k = 200 and 0.4% for k = 1000, with
+ * 99% probability. Min and max are tracked exactly. Merging two sketches
+ * gives the same guarantees as sketching the combined input, so sketches
+ * built by separate threads can be combined in parallel streams.
+ * Each sketch draws its own random seed, since the bounds assume independent
+ * coin flips across the sketches being merged; repeated runs may therefore
+ * differ slightly, within the error bound. Instances are not thread-safe.
+ */
+class SalarySketch {
+    static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    // Compactor h is levels[h][0, levelSizes[h]); arrays are sized for `height` levels plus spare slots
+    private double[][] levels = new double[4][];
+    private int[] levelSizes = new int[4];
+    private int height;
+    private int[] capacities = new int[4]; // depend on the height, so recomputed only when a level is added
+    private int maxRetained;
+    private long count;
+    private int retained;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long randomState = ThreadLocalRandom.current().nextLong() | 1; // xorshift state must not be 0
+
+    public SalarySketch() {
+        this(DEFAULT_K);
+    }
+
+    public SalarySketch(int k) {
+        if (k < 8) throw new IllegalArgumentException("k must be at least 8.");
+        this.k = k;
+        addLevel();
+    }
+
+    // --- Updates ---
+
+    public void accept(double value) {
+        if (Double.isNaN(value)) return;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        retained++;
+        if (retained >= maxRetained) compress();
+    }
+
+    public SalarySketch merge(SalarySketch other) {
+        while (height < other.height) addLevel();
+        for (int h = 0; h < other.height; h++) {
+            double[] items = other.levels[h];
+            int n = other.levelSizes[h];
+            for (int i = 0; i < n; i++) append(h, items[i]);
+        }
+        count += other.count;
+        retained += other.retained;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (retained >= maxRetained) compress();
+        return this;
+    }
+
+    private void addLevel() {
+        if (height == levels.length) {
+            levels = Arrays.copyOf(levels, height * 2);
+            levelSizes = Arrays.copyOf(levelSizes, height * 2);
+            capacities = new int[height * 2];
+        }
+        levels[height++] = new double[8];
+        // Capacities shrink geometrically below the top level, so a new level changes all of them
+        maxRetained = 0;
+        for (int h = 0; h < height; h++) {
+            int depth = height - h - 1;
+            capacities[h] = (int) Math.ceil(Math.pow(CAPACITY_DECAY, depth) * k) + 1;
+            maxRetained += capacities[h];
+        }
+    }
+
+    private void append(int level, double value) {
+        double[] items = levels[level];
+        int n = levelSizes[level];
+        if (n == items.length) levels[level] = items = Arrays.copyOf(items, n * 2);
+        items[n] = value;
+        levelSizes[level] = n + 1;
+    }
+
+    /**
+     * Compacts the lowest level that is over capacity into the level above it.
+     */
+    private void compress() {
+        for (int h = 0; h < height; h++) {
+            int n = levelSizes[h];
+            if (n < capacities[h]) continue;
+            if (h + 1 == height) addLevel();
+
+            double[] items = levels[h];
+            Arrays.sort(items, 0, n);
+            int offset = nextBit();
+            int kept = n & 1; // an odd item out stays at this level
+            int promoted = 0;
+            for (int i = kept + offset; i < n; i += 2) {
+                append(h + 1, items[i]);
+                promoted++;
+            }
+            levelSizes[h] = kept;
+            retained -= n - kept - promoted;
+            return;
+        }
+    }
+
+    private int nextBit() {
+        // xorshift64: cheap and allocation-free
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        return (int) (randomState & 1);
+    }
+
+    // --- Queries ---
+
+    public long getCount() { return count; }
+    public double getMin() { return count == 0 ? Double.NaN : min; }
+    public double getMax() { return count == 0 ? Double.NaN : max; }
+    public int getRetainedItems() { return retained; }
+
+    /**
+     * @param rank fraction in [0, 1], e.g. 0.5 for the median or 0.99 for p99.
+     * @return the approximate value at that rank, or NaN if the sketch is empty.
+     */
+    public double quantile(double rank) {
+        if (rank < 0 || rank > 1) throw new IllegalArgumentException("Rank must be between 0 and 1.");
+        if (count == 0) return Double.NaN;
+        if (rank == 0) return min;
+        if (rank == 1) return max;
+
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int h = 0; h < height; h++) {
+            double[] items = levels[h];
+            for (int i = 0; i < levelSizes[h]; i++) {
+                values[n] = items[i];
+                weights[n++] = 1L << h;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        long totalWeight = 0;
+        for (int i = 0; i < n; i++) totalWeight += weights[i];
+        double target = rank * totalWeight;
+        long cumulative = 0;
+        for (int i = 0; i < n; i++) {
+            cumulative += weights[order[i]];
+            if (cumulative >= target) return values[order[i]];
+        }
+        return max;
+    }
+
+    public double median() { return quantile(0.5); }
+
+    @Override
+    public String toString() {
+        return String.format("SalarySketch[n=%d, min=%.2f, p50=%.2f, p90=%.2f, p99=%.2f, max=%.2f]",
+                             count, getMin(), quantile(0.5), quantile(0.9), quantile(0.99), getMax());
+    }
+}
@@ -0,0 +1,380 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Seeded registration-day workload against the {@code CourseManagement} facade.
+ * <p>
+ * Creates M courses and N students, then runs a mix of {@code addStudent},
+ * {@code enrollStudent}, {@code assignGrade} and {@code calculateOverallGrade}
+ * from many threads. Course popularity is Zipfian, so a few courses fill up
+ * while the tail stays mostly empty, the way sign-ups peak on registration
+ * day. Every worker draws its operations from its own seeded generator, so a
+ * given seed always issues the same per-thread operation sequences (only the
+ * interleaving between threads varies).
+ * <p>
+ * Afterwards it prints throughput and per-operation latency percentiles, then
+ * checks the registry's invariants: no course over capacity, rosters agreeing
+ * with enrollment counts, and every overall grade matching a recompute from
+ * the stored grades. It exits with status 1 if an invariant is violated.
+ * <p>
+ * With {@code shards=N} the same workload runs against a
+ * {@link ShardedCourseManagement} with N partitions instead of the facade,
+ * and the capacity check also compares every course's seat count at its
+ * owner with the enrollments recorded across all shards.
+ * <p>
+ * While the workload runs, a consumer follows the registry's change log and
+ * keeps its own per-course enrollment counts; at the end they must match the
+ * registry. If the consumer falls further behind than the log retains
+ * ({@code -Dregistry.changelog.capacity}), that is reported but not counted
+ * as a violation.
+ * <p>
+ * Usage (from the repository root):
+ * <pre>
+ * javac -d /tmp/sim RegistrationDaySimulator.java
+ * java -cp /tmp/sim RegistrationDaySimulator [key=value ...]
+ * </pre>
+ * Keys (defaults): {@code students=10000 courses=200 capacity=150 ops=1000000
+ * threads=8 seed=42 zipf=1.1 mix=add:5,enroll:50,grade:30,overall:15 virtual=false
+ * shards=0}.
+ * {@code virtual=true} runs one virtual thread per worker when the JVM has them
+ * (Java 21+) and falls back to platform threads otherwise. Add
+ * {@code -Dregistry.spill.dir=...} to exercise the disk-backed registry.
+ */
+public class RegistrationDaySimulator {
+
+    private enum Op { ADD, ENROLL, GRADE, OVERALL }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> config = parse(args);
+        int students = Integer.parseInt(config.getOrDefault("students", "10000"));
+        int courses = Integer.parseInt(config.getOrDefault("courses", "200"));
+        int capacity = Integer.parseInt(config.getOrDefault("capacity", "150"));
+        int ops = Integer.parseInt(config.getOrDefault("ops", "1000000"));
+        int threads = Integer.parseInt(config.getOrDefault("threads", "8"));
+        long seed = Long.parseLong(config.getOrDefault("seed", "42"));
+        double zipf = Double.parseDouble(config.getOrDefault("zipf", "1.1"));
+        boolean virtual = Boolean.parseBoolean(config.getOrDefault("virtual", "false"));
+        int shardCount = Integer.parseInt(config.getOrDefault("shards", "0"));
+        Op[] mix = parseMix(config.getOrDefault("mix", "add:5,enroll:50,grade:30,overall:15"));
+
+        System.out.printf("Simulating %,d ops on %d thread(s): %,d students, %d courses (capacity %d, zipf %.2f), seed %d%s%n",
+                          ops, threads, students, courses, capacity, zipf, seed,
+                          shardCount > 0 ? ", " + shardCount + " shard(s)" : "");
+        ShardedCourseManagement sharded = shardCount > 0 ? new ShardedCourseManagement(shardCount) : null;
+
+        ExecutorService executor = newExecutor(threads, virtual);
+
+        // The facade reports every outcome on System.out; silence it while the workload runs
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        String[] courseCodes = new String[courses];
+        for (int c = 0; c < courses; c++) {
+            courseCodes[c] = "C" + c;
+            if (sharded == null) CourseManagement.addCourse(courseCodes[c], "Course " + c, capacity);
+            else sharded.addCourse(courseCodes[c], "Course " + c, capacity).join();
+        }
+        // Room for the initial students plus every ADD the workload could issue
+        AtomicReferenceArray<String> studentIds = new AtomicReferenceArray<>(students + ops);
+        AtomicInteger studentCount = new AtomicInteger();
+        for (int i = 0; i < students; i++) {
+            studentIds.set(studentCount.getAndIncrement(), addStudent(sharded, "Student " + i));
+        }
+        double[] popularity = zipfCdf(courses, zipf);
+
+        Map<Op, Metrics.LatencyHistogram> latency = new LinkedHashMap<>();
+        for (Op op : Op.values()) latency.put(op, new Metrics.LatencyHistogram());
+
+        StudentRegistry registry = CourseManagement.registry();
+        Runnable[] workers = new Runnable[threads];
+        for (int t = 0; t < threads; t++) {
+            int share = ops / threads + (t < ops % threads ? 1 : 0);
+            SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + t);
+            workers[t] = () -> {
+                for (int i = 0; i < share; i++) {
+                    Op op = mix[random.nextInt(mix.length)];
+                    String studentId = studentIds.get(random.nextInt(studentCount.get()));
+                    String courseCode = courseCodes[sample(popularity, random.nextDouble())];
+                    int grade = random.nextInt(101);
+                    if (op == Op.GRADE) {
+                        // Grade one of the student's own courses when it has any (lookup is not timed)
+                        StudentRegistry home = sharded == null ? registry : sharded.registryOf(studentId);
+                        List<CourseRecord> enrolled = home.coursesOf(home.student(studentId));
+                        if (!enrolled.isEmpty()) courseCode = enrolled.get(random.nextInt(enrolled.size())).getCode();
+                    }
+
+                    long start = System.nanoTime();
+                    switch (op) {
+                        case ADD:
+                            String id = addStudent(sharded, "Walk-in");
+                            latency.get(op).recordSince(start);
+                            synchronized (studentIds) { // fill the slot before readers can pick it
+                                studentIds.set(studentCount.get(), id);
+                                studentCount.incrementAndGet();
+                            }
+                            continue;
+                        case ENROLL:
+                            if (sharded == null) CourseManagement.enrollStudent(studentId, courseCode);
+                            else sharded.enroll(studentId, courseCode).join();
+                            break;
+                        case GRADE:
+                            if (sharded == null) CourseManagement.assignGrade(studentId, courseCode, grade);
+                            else sharded.assignGrade(studentId, courseCode, grade).join();
+                            break;
+                        case OVERALL:
+                            if (sharded == null) CourseManagement.calculateOverallGrade(studentId);
+                            else sharded.calculateOverallGrade(studentId).join();
+                            break;
+                    }
+                    latency.get(op).recordSince(start);
+                }
+            };
+        }
+
+        // Follows the facade's registry, or the first shard's (it sees only that shard's students)
+        StudentRegistry followed = sharded == null ? registry : sharded.shardRegistries().get(0);
+        EnrollmentFollower follower = new EnrollmentFollower(followed.changes());
+        Thread followerThread = new Thread(follower, "change-follower");
+        followerThread.start();
+
+        long start = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>();
+        for (Runnable worker : workers) running.add(executor.submit(worker));
+        for (Future<?> future : running) future.get();
+        executor.shutdown();
+        long elapsedNanos = System.nanoTime() - start;
+        follower.stop();
+        followerThread.join();
+
+        // Recompute every overall grade through the facade, then restore the console
+        List<StudentRegistry> registries = sharded == null ? List.of(registry) : sharded.shardRegistries();
+        List<String> overallMismatches = new ArrayList<>();
+        for (StudentRegistry part : registries) {
+            for (StudentRecord student : part.students()) {
+                double reported = sharded == null ? CourseManagement.calculateOverallGrade(student.getId())
+                                                  : sharded.calculateOverallGrade(student.getId()).join();
+                double expected = recomputeAverage(part, student);
+                if (Math.abs(reported - expected) > 1e-9) overallMismatches.add(student.getId() + ": " + reported + " != " + expected);
+            }
+        }
+        System.setOut(console);
+
+        System.out.printf("%nCompleted in %.2f s: %,.0f ops/s%n", elapsedNanos / 1e9, ops / (elapsedNanos / 1e9));
+        latency.forEach((op, histogram) -> System.out.printf("  %-8s %s%n", op, histogram));
+
+        List<String> violations = new ArrayList<>();
+        for (StudentRegistry part : registries) violations.addAll(checkInvariants(part, capacity));
+        if (sharded != null) violations.addAll(checkSeatLedger(sharded, capacity));
+        violations.addAll(overallMismatches);
+        if (follower.overrun != null) {
+            System.out.println("\nChange follower fell behind: " + follower.overrun.getMessage());
+        } else {
+            System.out.printf("%nChange follower consumed %,d events%n", follower.consumed);
+            violations.addAll(follower.mismatches(followed));
+        }
+        if (sharded == null) {
+            System.out.printf("%nStudents: %,d | Enrollments: %,d | Fullest course: %s%n",
+                              registry.studentCount(), registry.totalEnrollments(), fullest(registry));
+        } else {
+            Map<String, ShardedCourseManagement.SeatCount> ledger = sharded.seatLedger().join();
+            String top = ledger.entrySet().stream().max(Map.Entry.comparingByValue(Comparator.comparingInt(ShardedCourseManagement.SeatCount::taken)))
+                               .map(e -> e.getKey() + " (" + e.getValue().taken() + " seats taken)").orElse("none");
+            System.out.printf("%nStudents: %,d | Enrollments: %,d | Fullest course: %s%n",
+                              registries.stream().mapToInt(StudentRegistry::studentCount).sum(),
+                              registries.stream().mapToInt(StudentRegistry::totalEnrollments).sum(), top);
+        }
+        if (violations.isEmpty()) {
+            System.out.println("Invariants: OK");
+        } else {
+            System.out.println("Invariants: " + violations.size() + " violation(s)");
+            violations.stream().limit(20).forEach(v -> System.out.println("  " + v));
+            System.exit(1);
+        }
+        if (sharded != null) sharded.close();
+        registry.close();
+    }
+
+    private static String addStudent(ShardedCourseManagement sharded, String name) {
+        return sharded == null ? CourseManagement.addStudent(name).getId() : sharded.addStudent(name).join();
+    }
+
+    // --- Invariants ---
+
+    private static List<String> checkInvariants(StudentRegistry registry, int capacity) {
+        List<String> violations = new ArrayList<>();
+        long courseTotal = 0;
+        for (CourseRecord course : registry.courses()) {
+            int enrolled = course.getEnrolledCount();
+            courseTotal += enrolled;
+            if (enrolled > capacity) violations.add(course.getCode() + " over capacity: " + enrolled + " > " + capacity);
+            if (course.getRoster().size() != enrolled) {
+                violations.add(course.getCode() + " roster has " + course.getRoster().size() + " students but " + enrolled + " seats taken");
+            }
+        }
+        long studentTotal = 0;
+        for (StudentRecord student : registry.students()) studentTotal += student.getEnrollmentCount();
+        if (courseTotal != registry.totalEnrollments() || studentTotal != registry.totalEnrollments()) {
+            violations.add("Enrollment totals disagree: courses=" + courseTotal + ", students=" + studentTotal
+                           + ", registry=" + registry.totalEnrollments());
+        }
+        return violations;
+    }
+
+    /**
+     * Downstream consumer of the change log: counts enrollments per course from the events alone.
+     */
+    private static final class EnrollmentFollower implements Runnable {
+        private final ChangeLog<ChangeEvent>.Cursor cursor;
+        private final Map<String, Integer> enrolledByCourse = new HashMap<>();
+        private volatile boolean stopping;
+        long consumed;
+        ChangeLog.OverrunException overrun;
+
+        EnrollmentFollower(ChangeLog<ChangeEvent> changes) {
+            // Setup is done, so no enrollment precedes the current position
+            this.cursor = changes.subscribe(changes.nextSequence());
+        }
+
+        void stop() { stopping = true; }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    boolean last = stopping; // producers are done once this is set, so drain once more and exit
+                    int delivered = cursor.drain(this::apply, 1024);
+                    if (delivered == 0) {
+                        if (last) return;
+                        Thread.yield();
+                    }
+                }
+            } catch (ChangeLog.OverrunException e) {
+                overrun = e;
+            }
+        }
+
+        private void apply(ChangeEvent event) {
+            consumed++;
+            if (event instanceof ChangeEvent.Enrolled enrolled) enrolledByCourse.merge(enrolled.courseCode(), 1, Integer::sum);
+        }
+
+        List<String> mismatches(StudentRegistry registry) {
+            List<String> mismatches = new ArrayList<>();
+            for (CourseRecord course : registry.courses()) {
+                int followed = enrolledByCourse.getOrDefault(course.getCode(), 0);
+                if (followed != course.getEnrolledCount()) {
+                    mismatches.add(course.getCode() + " change log shows " + followed + " enrollments but " + course.getEnrolledCount() + " seats taken");
+                }
+            }
+            return mismatches;
+        }
+    }
+
+    // Seats held by each course's owner must match the enrollments recorded on all shards
+    private static List<String> checkSeatLedger(ShardedCourseManagement sharded, int capacity) {
+        List<String> violations = new ArrayList<>();
+        Map<String, Integer> recorded = new HashMap<>();
+        for (StudentRegistry part : sharded.shardRegistries()) {
+            for (CourseRecord course : part.courses()) recorded.merge(course.getCode(), course.getEnrolledCount(), Integer::sum);
+        }
+        sharded.seatLedger().join().forEach((code, seats) -> {
+            if (seats.taken() > capacity) violations.add(code + " over capacity: " + seats.taken() + " > " + capacity);
+            int enrolled = recorded.getOrDefault(code, 0);
+            if (enrolled != seats.taken()) violations.add(code + " owner counts " + seats.taken() + " seats but shards record " + enrolled + " enrollments");
+        });
+        return violations;
+    }
+
+    // Independent of StudentRecord.averageGrade: walks the boxed per-course grade map
+    private static double recomputeAverage(StudentRegistry registry, StudentRecord student) {
+        double total = 0;
+        int graded = 0;
+        for (double grade : registry.gradesOf(student).values()) {
+            if (grade != StudentRegistry.NO_GRADE) {
+                total += grade;
+                graded++;
+            }
+        }
+        return graded == 0 ? 0.0 : total / graded;
+    }
+
+    private static String fullest(StudentRegistry registry) {
+        CourseRecord fullest = null;
+        for (CourseRecord course : registry.courses()) {
+            if (fullest == null || course.getEnrolledCount() > fullest.getEnrolledCount()) fullest = course;
+        }
+        return fullest == null ? "none" : fullest.getCode() + " (" + fullest.getEnrolledCount() + " seats taken)";
+    }
+
+    // --- Workload Helpers ---
+
+    /** Cumulative Zipf distribution: course k (0-based) has weight 1 / (k + 1)^s. */
+    static double[] zipfCdf(int n, double s) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1 / Math.pow(k + 1, s);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= total;
+        return cdf;
+    }
+
+    static int sample(double[] cdf, double u) {
+        int low = 0, high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < u) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Expands "add:5,enroll:50,..." into a table with one entry per percentage point
+    private static Op[] parseMix(String mix) {
+        List<Op> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Expected op:weight, got " + entry);
+            Op op = Op.valueOf(parts[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) table.add(op);
+        }
+        if (table.isEmpty()) throw new IllegalArgumentException("Operation mix is empty.");
+        return table.toArray(new Op[0]);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> config = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            config.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return config;
+    }
+
+    private static ExecutorService newExecutor(int threads, boolean virtual) {
+        if (virtual) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads are not available on Java " + Runtime.version().feature() + "; using platform threads.");
+            }
+        }
+        return Executors.newFixedThreadPool(threads);
+    }
+}
@@ -0,0 +1,279 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded, weight-based read-through cache with segmented-LRU eviction.
+ * <p>
+ * New entries enter a small probationary segment; a second hit promotes them
+ * to the protected segment (80% of the weight budget). One-off scans
+ * therefore only churn the probationary segment, while the skewed set of hot
+ * records (popular courses' rosters, active students) stays resident.
+ * Entries demoted from the protected segment get another chance in probation
+ * before they are evicted.
+ * <p>
+ * Misses are filled by the loader, outside the cache lock, with at most one
+ * load per key in flight: concurrent misses on that key wait for it, so a
+ * second, stale copy of a value can never be cached after the first. Evicted
+ * entries are handed to the eviction listener while the lock is still held,
+ * so a concurrent miss on the same key cannot load it back from the backing
+ * store before the listener has flushed it. Listeners should therefore be
+ * short: write-behind stores flush most dirty values in the background and
+ * only write the stragglers here.
+ * <p>
+ * An entry is never evicted by the call that inserts or re-weighs it, and
+ * counts as at most {@code maxWeight}, so a value larger than the whole
+ * budget is still returned and cached (alone) until the next insertion.
+ * All operations are thread-safe.
+ */
+public final class SegmentedLruCache<K, V> {
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final long maxWeight;
+    private final long maxProtectedWeight;
+    private final ToIntFunction<V> weigher;
+    private final Function<K, V> loader;
+    private final BiConsumer<K, V> evictionListener;
+
+    // Both maps are in LRU -> MRU iteration order; guarded by this
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Integer> weights = new HashMap<>();
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>(); // in-flight loads
+    private long probationWeight;
+    private long protectedWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxWeight total weight budget (e.g. estimated bytes).
+     * @param weigher weight of a value; call {@link #reweigh} when a cached value changes size.
+     * @param loader called on a miss; may return null if the key does not exist.
+     * @param evictionListener called with every evicted entry.
+     */
+    public SegmentedLruCache(long maxWeight, ToIntFunction<V> weigher, Function<K, V> loader, BiConsumer<K, V> evictionListener) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("Max weight must be positive.");
+        this.maxWeight = maxWeight;
+        this.maxProtectedWeight = (long) (maxWeight * PROTECTED_SHARE);
+        this.weigher = weigher;
+        this.loader = loader;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Returns the cached value, loading it on a miss.
+     * Concurrent misses on the same key share a single call to the loader.
+     */
+    public V get(K key) {
+        CompletableFuture<V> load;
+        boolean first;
+        synchronized (this) {
+            V value = lookup(key);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            misses.increment();
+            load = loading.get(key);
+            first = load == null;
+            if (first) {
+                load = new CompletableFuture<>();
+                loading.put(key, load);
+            }
+        }
+        return first ? load(key, load) : await(load);
+    }
+
+    private V load(K key, CompletableFuture<V> load) {
+        V loaded;
+        try {
+            loaded = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loading.remove(key);
+            }
+            load.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            loading.remove(key);
+            V current = protectedSegment.containsKey(key) ? protectedSegment.get(key) : probation.get(key);
+            if (current != null) {
+                loaded = current; // put() while loading; the newer value wins
+            } else if (loaded != null) {
+                insert(key, loaded);
+                evictOverflow(key);
+            }
+        }
+        load.complete(loaded);
+        return loaded;
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    public V getIfPresent(K key) {
+        V value;
+        synchronized (this) {
+            value = lookup(key);
+        }
+        if (value != null) hits.increment();
+        return value;
+    }
+
+    /**
+     * Inserts or replaces a value (replacement keeps the entry's segment).
+     */
+    public synchronized void put(K key, V value) {
+        if (protectedSegment.containsKey(key)) {
+            protectedWeight += updateWeight(key, value);
+            protectedSegment.put(key, value);
+        } else if (probation.containsKey(key)) {
+            probationWeight += updateWeight(key, value);
+            probation.put(key, value);
+        } else {
+            insert(key, value);
+        }
+        evictOverflow(key);
+    }
+
+    /**
+     * Recomputes the weight of a cached value that changed size, evicting other
+     * entries if the cache is now over budget. Does nothing if the key is not cached.
+     */
+    public synchronized void reweigh(K key) {
+        V value = protectedSegment.get(key);
+        if (value != null) {
+            protectedWeight += updateWeight(key, value);
+        } else if ((value = probation.get(key)) != null) {
+            probationWeight += updateWeight(key, value);
+        } else {
+            return;
+        }
+        evictOverflow(key);
+    }
+
+    /**
+     * Evicts every entry through the eviction listener (e.g. to flush dirty values).
+     */
+    public synchronized void invalidateAll() {
+        probation.forEach(evictionListener);
+        protectedSegment.forEach(evictionListener);
+        probation.clear();
+        protectedSegment.clear();
+        weights.clear();
+        probationWeight = protectedWeight = 0;
+    }
+
+    // Caller holds the lock. A probation hit is promoted to the protected segment.
+    private V lookup(K key) {
+        V value = protectedSegment.get(key);
+        if (value != null) return value;
+        value = probation.remove(key);
+        if (value == null) return null;
+
+        int weight = weights.get(key);
+        probationWeight -= weight;
+        protectedSegment.put(key, value);
+        protectedWeight += weight;
+        // Demote the protected segment's LRU entries back to probation (MRU end)
+        Iterator<Map.Entry<K, V>> it = protectedSegment.entrySet().iterator();
+        while (protectedWeight > maxProtectedWeight && it.hasNext()) {
+            Map.Entry<K, V> lru = it.next();
+            if (lru.getKey().equals(key)) continue;
+            int w = weights.get(lru.getKey());
+            it.remove();
+            protectedWeight -= w;
+            probation.put(lru.getKey(), lru.getValue());
+            probationWeight += w;
+        }
+        return value;
+    }
+
+    private void insert(K key, V value) {
+        int weight = weigh(value);
+        weights.put(key, weight);
+        probation.put(key, value);
+        probationWeight += weight;
+    }
+
+    private int updateWeight(K key, V value) {
+        int weight = weigh(value);
+        Integer previous = weights.put(key, weight);
+        return weight - (previous == null ? 0 : previous);
+    }
+
+    private int weigh(V value) {
+        return (int) Math.min(weigher.applyAsInt(value), maxWeight);
+    }
+
+    // Caller holds the lock. Evicts LRU entries, probation first, until the budget is met.
+    // `keep` is never chosen; on its own it always fits, since weights are capped at maxWeight.
+    private void evictOverflow(K keep) {
+        while (probationWeight + protectedWeight > maxWeight) {
+            LinkedHashMap<K, V> victimSegment = probation;
+            Map.Entry<K, V> lru = eldestExcept(probation, keep);
+            if (lru == null) {
+                victimSegment = protectedSegment;
+                lru = eldestExcept(protectedSegment, keep);
+                if (lru == null) return;
+            }
+            K key = lru.getKey();
+            V value = lru.getValue();
+            victimSegment.remove(key);
+            int weight = weights.remove(key);
+            if (victimSegment == probation) probationWeight -= weight;
+            else protectedWeight -= weight;
+            evictions.increment();
+            evictionListener.accept(key, value);
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> eldestExcept(LinkedHashMap<K, V> segment, K keep) {
+        for (Map.Entry<K, V> entry : segment.entrySet()) {
+            if (!entry.getKey().equals(keep)) return entry;
+        }
+        return null;
+    }
+
+    // --- Statistics ---
+
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+
+    public double hitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    public synchronized long weight() {
+        return probationWeight + protectedWeight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SegmentedLruCache[size=%d, weight=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d]",
+                             size(), weight(), maxWeight, hitCount(), missCount(), hitRate() * 100, evictionCount());
+    }
+}
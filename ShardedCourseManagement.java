@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Partitioned variant of the {@code CourseManagement} operations for
+ * multi-core registration workloads.
+ * <p>
+ * Students are split by id hash across N shards. Each shard has its own
+ * {@link StudentRegistry} and a single-threaded event loop that is the only
+ * writer of that registry, so student updates never contend across shards.
+ * Every shard keeps a copy of each course (with unlimited local capacity)
+ * for its own enrollment checks. Seat counts, the one thing shared across
+ * shards, live with the course's owner: the shard the course code hashes
+ * to. Enrollment runs in three steps, each on one event loop:
+ * <ol>
+ * <li>The student's shard checks the student (prerequisites, clashes, duplicates).</li>
+ * <li>The course owner reserves a seat.</li>
+ * <li>The student's shard records the enrollment, or hands the seat back if the
+ *     student changed in between.</li>
+ * </ol>
+ * No loop ever waits for another, so there are no cross-shard locks. A course
+ * is never over capacity. A seat can be briefly held by an enrollment that
+ * then fails, which only makes a concurrent request see the course as full.
+ * <p>
+ * Course-level changes (new courses, details, prerequisites, meeting hours)
+ * are rare; they are queued to every shard in one global order, so all
+ * copies of the catalog agree. Operations return futures that complete on
+ * the event loops; join them from the caller, never from inside a callback.
+ * Shard registries are in-memory only.
+ */
+public final class ShardedCourseManagement implements AutoCloseable {
+    private final Shard[] shards;
+    private final Object catalogOrder = new Object();
+
+    /**
+     * Seats of one course, as counted by its owner.
+     */
+    public record SeatCount(int taken, int capacity) {}
+
+    private static final class Shard {
+        final StudentRegistry registry = new StudentRegistry();
+        final ExecutorService loop;
+        final Map<String, int[]> ownedSeats = new HashMap<>(); // code -> {taken, capacity}; touched only by `loop`
+
+        Shard(int index) {
+            this.loop = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "course-shard-" + index);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<T> task) {
+            return CompletableFuture.supplyAsync(task, loop);
+        }
+
+        StudentRegistry.Status reserveSeat(String code) {
+            int[] seats = ownedSeats.get(code);
+            if (seats == null) return StudentRegistry.Status.UNKNOWN_COURSE;
+            if (seats[0] >= seats[1]) return StudentRegistry.Status.COURSE_FULL;
+            seats[0]++;
+            return StudentRegistry.Status.OK;
+        }
+
+        void releaseSeat(String code) {
+            ownedSeats.get(code)[0]--;
+        }
+
+        // Called from another shard's loop. Once this loop is shut down its seat counts are no longer read.
+        void releaseSeatLater(String code) {
+            try {
+                loop.execute(() -> releaseSeat(code));
+            } catch (RejectedExecutionException e) {
+                // closed: nothing left to hand the seat back to
+            }
+        }
+    }
+
+    /**
+     * @param shardCount number of partitions (and event-loop threads), typically the number of cores.
+     */
+    public ShardedCourseManagement(int shardCount) {
+        if (shardCount <= 0) throw new IllegalArgumentException("Invalid shard count: " + shardCount);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new Shard(i);
+    }
+
+    public int shardCount() { return shards.length; }
+
+    private Shard shardOf(String studentId) { return shards[Math.floorMod(studentId.hashCode(), shards.length)]; }
+    private Shard ownerOf(String courseCode) { return shards[Math.floorMod(courseCode.hashCode(), shards.length)]; }
+
+    // --- Courses (broadcast to every shard) ---
+
+    /**
+     * @return {@link StudentRegistry.Status#DUPLICATE} if the code is already registered.
+     */
+    public CompletableFuture<StudentRegistry.Status> addCourse(String code, String name, int maxCapacity) {
+        Shard owner = ownerOf(code);
+        return broadcast(shard -> {
+            if (shard.registry.addCourse(code, name, StudentRegistry.UNLIMITED_CAPACITY) == null) return StudentRegistry.Status.DUPLICATE;
+            if (shard == owner) shard.ownedSeats.put(code, new int[] {0, maxCapacity});
+            return StudentRegistry.Status.OK;
+        });
+    }
+
+    public CompletableFuture<StudentRegistry.Status> updateCourse(String code, String name, int maxCapacity) {
+        Shard owner = ownerOf(code);
+        return broadcast(shard -> {
+            StudentRegistry.Status status = shard.registry.updateCourse(code, name, StudentRegistry.UNLIMITED_CAPACITY);
+            if (status == StudentRegistry.Status.OK && shard == owner) shard.ownedSeats.get(code)[1] = maxCapacity;
+            return status;
+        });
+    }
+
+    public CompletableFuture<StudentRegistry.Status> setPrerequisites(String code, Collection<String> prerequisiteCodes) {
+        List<String> prerequisites = List.copyOf(prerequisiteCodes);
+        return broadcast(shard -> shard.registry.setPrerequisites(code, prerequisites));
+    }
+
+    public CompletableFuture<StudentRegistry.Status> setMeetingHours(String code, int[] hoursOfWeek) {
+        int[] hours = hoursOfWeek.clone();
+        return broadcast(shard -> shard.registry.setMeetingHours(code, hours));
+    }
+
+    // Every shard applies the same change in the same order, so each completes with the same status
+    private CompletableFuture<StudentRegistry.Status> broadcast(Function<Shard, StudentRegistry.Status> change) {
+        List<CompletableFuture<StudentRegistry.Status>> results = new ArrayList<>(shards.length);
+        synchronized (catalogOrder) {
+            for (Shard shard : shards) results.add(shard.submit(() -> change.apply(shard)));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> results.get(0).join());
+    }
+
+    // --- Students (routed to the owning shard) ---
+
+    /**
+     * Registers a student under a generated 8-character id.
+     * @return the new student's id.
+     */
+    public CompletableFuture<String> addStudent(String name) {
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        Shard shard = shardOf(id);
+        return shard.submit(() -> shard.registry.addStudent(id, name, -1))
+                .thenCompose(student -> student != null ? CompletableFuture.completedFuture(id) : addStudent(name));
+    }
+
+    public CompletableFuture<StudentRegistry.Status> enroll(String studentId, String courseCode) {
+        Shard home = shardOf(studentId);
+        Shard owner = ownerOf(courseCode);
+        return home.submit(() -> home.registry.checkEnrollment(studentId, courseCode))
+                .thenCompose(checked -> checked != StudentRegistry.Status.OK
+                        ? CompletableFuture.completedFuture(checked)
+                        : owner.submit(() -> owner.reserveSeat(courseCode)))
+                .thenCompose(reserved -> reserved != StudentRegistry.Status.OK
+                        ? CompletableFuture.completedFuture(reserved)
+                        : home.submit(() -> {
+                            StudentRegistry.Status status = home.registry.enroll(studentId, courseCode);
+                            if (status != StudentRegistry.Status.OK) owner.releaseSeatLater(courseCode);
+                            return status;
+                        }));
+    }
+
+    public CompletableFuture<StudentRegistry.Status> assignGrade(String studentId, String courseCode, double grade) {
+        Shard home = shardOf(studentId);
+        return home.submit(() -> home.registry.assignGrade(studentId, courseCode, grade));
+    }
+
+    /**
+     * @return the student's average over graded courses, 0.0 if none are graded,
+     *         or -1.0 if the student is unknown (as in {@code CourseManagement}).
+     */
+    public CompletableFuture<Double> calculateOverallGrade(String studentId) {
+        Shard home = shardOf(studentId);
+        return home.submit(() -> {
+            StudentRecord student = home.registry.student(studentId);
+            if (student == null) return -1.0;
+            double average = student.averageGrade();
+            return Double.isNaN(average) ? 0.0 : average;
+        });
+    }
+
+    // --- Reads ---
+
+    /** @return the registry of the shard that owns the student; read-only outside the shard's loop. */
+    StudentRegistry registryOf(String studentId) { return shardOf(studentId).registry; }
+
+    /** @return every shard's registry; read-only outside the shards' loops. */
+    List<StudentRegistry> shardRegistries() {
+        List<StudentRegistry> registries = new ArrayList<>(shards.length);
+        for (Shard shard : shards) registries.add(shard.registry);
+        return registries;
+    }
+
+    /**
+     * @return every course's seat count as held by its owner.
+     */
+    public CompletableFuture<Map<String, SeatCount>> seatLedger() {
+        List<CompletableFuture<Map<String, SeatCount>>> parts = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            parts.add(shard.submit(() -> {
+                Map<String, SeatCount> owned = new HashMap<>();
+                shard.ownedSeats.forEach((code, seats) -> owned.put(code, new SeatCount(seats[0], seats[1])));
+                return owned;
+            }));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<String, SeatCount> ledger = new HashMap<>();
+            for (CompletableFuture<Map<String, SeatCount>> part : parts) ledger.putAll(part.join());
+            return ledger;
+        });
+    }
+
+    /**
+     * Finishes queued work and stops the event loops. An operation still
+     * moving between shards may then complete exceptionally with a
+     * {@link RejectedExecutionException}; a seat it would hand back is dropped
+     * along with the owner's counts.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) shard.loop.shutdown();
+        try {
+            for (Shard shard : shards) shard.loop.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Shard shard : shards) shard.registry.close();
+    }
+}
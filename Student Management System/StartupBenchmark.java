@@ -0,0 +1,90 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the class-data sharing (AppCDS) archive for {@link StudentManagementSystem}
+ * and measures its time to first frame.
+ * <p>
+ * Every measurement is a fresh JVM, started with {@code -Dsms.startupProbe} so
+ * the application prints how long it took from launch until its window opened
+ * and then exits. Three configurations are compared: eager tab construction,
+ * fast start (lazy tabs, background model loading), and fast start with the
+ * archive. The archive is a dynamic CDS archive ({@code -XX:ArchiveClassesAtExit})
+ * recorded from one training run that opens every tab. It holds the parsed
+ * application and Swing/AWT classes, look and feel included, so later launches
+ * map them instead of loading and verifying them again. It is only valid for the
+ * JDK and classpath it was built with; rebuild it after changing either.
+ * <p>
+ * Usage (from this folder, with a display):
+ * <pre>
+ * java -cp . StartupBenchmark archive          # build sms.jsa only
+ * java -cp . StartupBenchmark [runs]           # build if missing, then benchmark (default 5 runs)
+ * java -XX:SharedArchiveFile=sms.jsa -cp . StudentManagementSystem
+ * </pre>
+ */
+public class StartupBenchmark {
+    static final String FIRST_FRAME_PREFIX = "first-frame-ms=";
+    private static final String ARCHIVE = "sms.jsa";
+
+    public static void main(String[] args) throws Exception {
+        File archive = new File(ARCHIVE);
+        if (args.length > 0 && args[0].equals("archive")) {
+            buildArchive(archive);
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        if (!archive.isFile()) buildArchive(archive);
+
+        System.out.printf("Time to first frame over %d launches (ms)%n", runs);
+        report("eager tabs", runs, "-Dsms.fastStart=false");
+        report("fast start", runs, "-Dsms.fastStart=true");
+        report("fast start + CDS archive", runs, "-Dsms.fastStart=true", "-XX:SharedArchiveFile=" + ARCHIVE);
+    }
+
+    private static void buildArchive(File archive) throws IOException, InterruptedException {
+        System.out.println("Recording class-data sharing archive " + archive + " ...");
+        launch("-XX:ArchiveClassesAtExit=" + archive.getPath());
+        if (!archive.isFile()) throw new IllegalStateException("JVM did not write " + archive);
+        System.out.printf("Archive written: %,d KB%n", archive.length() / 1024);
+    }
+
+    private static void report(String label, int runs, String... jvmOptions) throws IOException, InterruptedException {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) millis[i] = launch(jvmOptions);
+        Arrays.sort(millis);
+        System.out.printf("  %-26s median=%d min=%d max=%d%n", label, millis[runs / 2], millis[0], millis[runs - 1]);
+    }
+
+    /**
+     * Starts the application in a fresh JVM and waits for it to report its first frame.
+     * @return milliseconds from launch to first frame.
+     */
+    private static long launch(String... jvmOptions) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(Arrays.asList(jvmOptions));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Dsms.startupProbe=" + System.currentTimeMillis());
+        command.add("StudentManagementSystem");
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long firstFrame = -1;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(FIRST_FRAME_PREFIX)) firstFrame = Long.parseLong(line.substring(FIRST_FRAME_PREFIX.length()));
+                else output.append(line).append('\n');
+            }
+        }
+        process.waitFor();
+        if (firstFrame < 0) throw new IllegalStateException("No first frame reported (is a display available?):\n" + output);
+        return firstFrame;
+    }
+}
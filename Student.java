@@ -0,0 +1,121 @@
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The Student class encapsulates student data and behavior.
+ * It is a thin handle over a student id in the shared {@link StudentRegistry},
+ * which stores the enrolled courses and grades. The record is looked up on every
+ * call because a disk-backed registry may evict it and load a fresh copy later.
+ */
+class Student {
+    private final StudentRegistry registry;
+    private final String id;
+
+    /**
+     * Constructor for the Student class.
+     * @param registry The registry that stores this student's data.
+     * @param id The ID of a student registered in {@code registry}.
+     */
+    Student(StudentRegistry registry, String id) {
+        this.registry = registry;
+        this.id = id;
+    }
+
+    private StudentRecord record() {
+        return registry.student(id);
+    }
+
+    // --- Public Getter Methods ---
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return record().getName();
+    }
+
+    public Map<String, Course> getEnrolledCourses() {
+        // Built from the registry on each call, so callers cannot modify internal state
+        Map<String, Course> enrolled = new LinkedHashMap<>();
+        for (CourseRecord course : registry.coursesOf(record())) {
+            enrolled.put(course.getCode(), new Course(registry, course.getCode()));
+        }
+        return enrolled;
+    }
+    
+    public Map<String, Integer> getGrades() {
+        // Grades are stored as primitives in the registry; -1 indicates a pending grade
+        Map<String, Integer> grades = new LinkedHashMap<>();
+        registry.gradesOf(record()).forEach((course, grade) -> grades.put(course.getCode(), (int) Math.round(grade)));
+        return grades;
+    }
+
+    // --- Public Setter Method for Updates ---
+    public void setName(String name) {
+        registry.renameStudent(id, name);
+    }
+
+    /**
+     * Enrolls the student in a course; the registry enforces the course's
+     * capacity, prerequisites and meeting times.
+     * @param course The Course object to enroll in.
+     */
+    public void enrollInCourse(Course course) {
+        switch (registry.enroll(id, course.getCourseCode())) {
+            case ALREADY_ENROLLED:
+                System.out.println("Student " + getName() + " is already enrolled in " + course.getName());
+                break;
+            case COURSE_FULL:
+                System.out.println("Enrollment failed. " + course.getName() + " has reached maximum capacity.");
+                break;
+            case MISSING_PREREQUISITE:
+                String missing = registry.missingPrerequisites(record(), registry.course(course.getCourseCode())).stream()
+                                         .map(CourseRecord::getCode).collect(Collectors.joining(", "));
+                System.out.println("Enrollment failed. " + getName() + " must first enroll in: " + missing);
+                break;
+            case SCHEDULE_CONFLICT:
+                System.out.println("Enrollment failed. " + course.getName() + " clashes with " + getName() + "'s timetable.");
+                break;
+            case OK:
+                System.out.println("Student " + getName() + " successfully enrolled in " + course.getName());
+                break;
+            default:
+                System.out.println("Enrollment failed for course " + course.getCourseCode());
+        }
+    }
+
+    /**
+     * Assigns a grade to the student for a specific course.
+     * @param courseCode The code of the course.
+     * @param grade The grade to assign (0-100).
+     */
+    public void assignGrade(String courseCode, int grade) {
+        switch (registry.assignGrade(id, courseCode, grade)) {
+            case OK:
+                System.out.println("Grade " + grade + " assigned to " + getName() + " for course " + courseCode);
+                break;
+            case INVALID_GRADE:
+                System.out.println("Error: Invalid grade value. Grade must be between 0 and 100.");
+                break;
+            case NOT_ENROLLED:
+                System.out.println("Error: Student " + getName() + " is not enrolled in course " + courseCode);
+                break;
+            case UNKNOWN_STUDENT:
+                System.out.println("Error: Student with ID " + getId() + " not found.");
+                break;
+            case UNKNOWN_COURSE:
+                System.out.println("Error: Course with code " + courseCode + " not found.");
+                break;
+            default:
+                System.out.println("Grade assignment failed for course " + courseCode);
+        }
+    }
+
+    /**
+     * @return the average of assigned grades, or NaN when none are assigned.
+     */
+    double averageGrade() {
+        return record().averageGrade();
+    }
+}
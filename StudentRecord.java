@@ -0,0 +1,262 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * A student as stored in {@link StudentRegistry}.
+ * <p>
+ * Grades are kept in a primitive array indexed by the course slot assigned
+ * by the registry, with a bitset marking enrollments, so grade lookups and
+ * averages never box or hash. A second bitset holds the weekly hours the
+ * student's courses meet (see {@link CourseCatalog}) for clash checks.
+ * Mutations go through the registry and are guarded by this record's
+ * monitor; name and age are volatile so that readers on other threads
+ * (e.g. the Swing EDT) always see the latest value.
+ * <p>
+ * When the registry spills to disk, a record can be evicted from memory. The
+ * registry then marks it detached under the monitor, and mutators that still
+ * hold the old instance re-read the student instead of updating a stale copy.
+ * <p>
+ * Each change carries the registry's clock value ({@code stamp}). While a
+ * {@link StudentRegistry.Snapshot} is open, the state a change replaces is
+ * first frozen into an immutable {@link Version}, so the snapshot can read
+ * the record as of its own stamp. With no snapshot open nothing is copied.
+ */
+public final class StudentRecord {
+    private final String id;
+    private final long registrationOrder;
+    private volatile String name;
+    private volatile int age; // -1 when not recorded
+
+    // Guarded by this
+    private long[] enrolled = new long[1];
+    private double[] grades = new double[0];
+    private int enrollmentCount;
+    private long[] timetable = new long[CourseCatalog.TIMETABLE_WORDS]; // union of enrolled courses' meeting hours
+    private boolean dirty;    // changed since last written to the disk store
+    private boolean detached; // evicted; the live copy must be reloaded
+    private long stamp;       // registry clock at the last change
+    private Version history;  // superseded states still visible to open snapshots, newest first
+
+    /**
+     * Immutable copy of a student's state, valid from {@code stamp} until the next change.
+     */
+    public static final class Version {
+        private final String id;
+        private final String name;
+        private final int age;
+        private final long stamp;
+        private final long[] enrolled;
+        private final double[] grades;
+        private final int enrollmentCount;
+        private Version older; // guarded by the record
+
+        private Version(StudentRecord record) {
+            this.id = record.id;
+            this.name = record.name;
+            this.age = record.age;
+            this.stamp = record.stamp;
+            this.enrolled = record.enrolled.clone();
+            this.grades = record.grades.clone();
+            this.enrollmentCount = record.enrollmentCount;
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public int getAge() { return age; }
+        public int getEnrollmentCount() { return enrollmentCount; }
+        public boolean isEnrolled(int courseSlot) { return isSet(enrolled, courseSlot); }
+        public double getGrade(int courseSlot) { return isEnrolled(courseSlot) ? grades[courseSlot] : StudentRegistry.NO_GRADE; }
+        public long[] enrollmentBits() { return enrolled.clone(); }
+        public double averageGrade() { return average(enrolled, grades); }
+
+        @Override
+        public String toString() {
+            return name + " (ID: " + id + ")";
+        }
+    }
+
+    StudentRecord(String id, String name, int age, long registrationOrder, long stamp) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.registrationOrder = registrationOrder;
+        this.stamp = stamp;
+    }
+
+    // --- Public Getter Methods ---
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public int getAge() { return age; }
+    long getRegistrationOrder() { return registrationOrder; }
+
+    public synchronized int getEnrollmentCount() { return enrollmentCount; }
+
+    public synchronized boolean isEnrolled(int courseSlot) {
+        return isSet(enrolled, courseSlot);
+    }
+
+    /** @return the grade for a course slot, or {@link StudentRegistry#NO_GRADE} if pending or not enrolled. */
+    public synchronized double getGrade(int courseSlot) {
+        return isEnrolled(courseSlot) ? grades[courseSlot] : StudentRegistry.NO_GRADE;
+    }
+
+    /** @return a copy of the enrollment bitset, one bit per course slot. */
+    public synchronized long[] enrollmentBits() {
+        return enrolled.clone();
+    }
+
+    /**
+     * Averages assigned grades in one pass over the primitive arrays, with the
+     * enrollment bitset as the mask (see {@link MaskedKernels}).
+     * @return the average, or NaN when no grade has been assigned yet.
+     */
+    public synchronized double averageGrade() {
+        return average(enrolled, grades);
+    }
+
+    private static boolean isSet(long[] bits, int slot) {
+        int word = slot >>> 6;
+        return word < bits.length && (bits[word] & (1L << slot)) != 0;
+    }
+
+    private static double average(long[] enrolled, double[] grades) {
+        DoubleSummaryStatistics graded = MaskedKernels.get().summarizeSelected(grades, enrolled, StudentRegistry.NO_GRADE);
+        return graded.getCount() == 0 ? Double.NaN : graded.getAverage();
+    }
+
+    // --- Mutations (called by StudentRegistry) ---
+
+    void setName(String name) { this.name = name; }
+    void setAge(int age) { this.age = age; }
+
+    /** Caller must hold this record's monitor; the live arrays, not copies. */
+    long[] enrolledWords() { return enrolled; }
+    long[] timetable() { return timetable; }
+
+    /** Caller must hold this record's monitor. */
+    void markEnrolled(int courseSlot, long[] meetingHours) {
+        int word = courseSlot >>> 6;
+        if (word >= enrolled.length) enrolled = Arrays.copyOf(enrolled, word + 1);
+        if (courseSlot >= grades.length) grades = Arrays.copyOf(grades, Math.max(courseSlot + 1, grades.length * 2));
+        enrolled[word] |= 1L << courseSlot;
+        grades[courseSlot] = StudentRegistry.NO_GRADE;
+        enrollmentCount++;
+        for (int w = 0; w < timetable.length; w++) timetable[w] |= meetingHours[w];
+    }
+
+    /**
+     * Recomputes the timetable after a course's meeting hours changed.
+     * Caller must hold this record's monitor.
+     */
+    void rebuildTimetable(CourseCatalog.Snapshot catalog) {
+        long[] rebuilt = new long[CourseCatalog.TIMETABLE_WORDS];
+        for (int word = 0; word < enrolled.length; word++) {
+            long bits = enrolled[word];
+            while (bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long[] hours = catalog.meetingsOf(slot);
+                for (int w = 0; w < rebuilt.length; w++) rebuilt[w] |= hours[w];
+            }
+        }
+        timetable = rebuilt;
+    }
+
+    /** Caller must hold this record's monitor and have checked the enrollment. */
+    void setGrade(int courseSlot, double grade) {
+        grades[courseSlot] = grade;
+    }
+
+    // --- Versioning (called by StudentRegistry with the monitor held) ---
+
+    /** @return a frozen copy of the current state, to be passed to {@link #commit}. */
+    Version freeze() {
+        return new Version(this);
+    }
+
+    /**
+     * Stamps a completed change.
+     * @param replaced the state before the change (from {@link #freeze}), or null if no snapshot is open.
+     * @param oldestPin oldest open snapshot's pin; versions superseded before it are dropped.
+     */
+    void commit(long changeStamp, Version replaced, long oldestPin) {
+        if (stamp == StudentRegistry.UNPUBLISHED) return; // not listed yet: part of the initial state
+        if (replaced == null) {
+            history = null;
+        } else if (replaced.stamp < changeStamp) { // same stamp: no snapshot can tell them apart
+            replaced.older = history;
+            history = replaced;
+            // A version is needed only while a snapshot may fall inside it: until > oldestPin
+            Version keep = null;
+            long until = changeStamp;
+            for (Version v = history; v != null && until > oldestPin; until = v.stamp, v = v.older) keep = v;
+            if (keep == null) history = null;
+            else keep.older = null;
+        }
+        stamp = changeStamp;
+    }
+
+    /** Stamps a newly registered record once it is listed; until then no snapshot sees it. */
+    void publish(long publishStamp) {
+        stamp = publishStamp;
+    }
+
+    /** @return the state before {@code snapshotStamp}, or null if the student registered later. */
+    synchronized Version versionAt(long snapshotStamp) {
+        if (stamp < snapshotStamp) return freeze();
+        for (Version v = history; v != null; v = v.older) {
+            if (v.stamp < snapshotStamp) return v;
+        }
+        return null;
+    }
+
+    Version history() { return history; }
+    void adoptHistory(Version retained) { if (history == null) history = retained; }
+
+    // --- Spill Support (called by StudentRegistry with the monitor held) ---
+
+    boolean isDirty() { return dirty; }
+    void markDirty() { dirty = true; }
+    void markClean() { dirty = false; }
+    boolean isDetached() { return detached; }
+    void detach() { detached = true; }
+
+    /** Rough heap footprint in bytes, used to weigh cached records. */
+    synchronized int estimatedSize() {
+        return 96 + 2 * (id.length() + name.length()) + 8 * enrolled.length + 8 * grades.length + 8 * timetable.length;
+    }
+
+    synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(id);
+        out.writeUTF(name);
+        out.writeInt(age);
+        out.writeLong(registrationOrder);
+        out.writeLong(stamp);
+        out.writeInt(enrollmentCount);
+        out.writeInt(enrolled.length);
+        for (long word : enrolled) out.writeLong(word);
+        out.writeInt(grades.length);
+        for (double grade : grades) out.writeDouble(grade);
+        for (long word : timetable) out.writeLong(word);
+    }
+
+    static StudentRecord readFrom(DataInput in) throws IOException {
+        StudentRecord record = new StudentRecord(in.readUTF(), in.readUTF(), in.readInt(), in.readLong(), in.readLong());
+        record.enrollmentCount = in.readInt();
+        record.enrolled = new long[in.readInt()];
+        for (int i = 0; i < record.enrolled.length; i++) record.enrolled[i] = in.readLong();
+        record.grades = new double[in.readInt()];
+        for (int i = 0; i < record.grades.length; i++) record.grades[i] = in.readDouble();
+        for (int i = 0; i < record.timetable.length; i++) record.timetable[i] = in.readLong();
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (ID: " + id + ")";
+    }
+}
@@ -0,0 +1,693 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Shared student/course/grade store used by both the console
+ * {@code CourseManagement} facade and the Swing {@code StudentManagementSystem}.
+ * <p>
+ * Lookups go through concurrent hash maps. Registration order is kept in a
+ * skip-list index so table views stay stable. Per-student grades are primitive
+ * arrays indexed by course slot (see {@link StudentRecord}). Enrollment locks
+ * only the student involved and reserves a seat with a CAS on the course, so
+ * independent operations do not contend.
+ * <p>
+ * Prerequisites and weekly meeting hours live in a {@link CourseCatalog}.
+ * Enrollment checks them with a few word-wide bitset operations: the
+ * transitive prerequisite closure against the student's enrollments, and the
+ * course's hours against the student's timetable.
+ * <p>
+ * Optionally ({@link #withDiskStore}) student records spill to a local
+ * {@link DiskStudentStore} behind a bounded {@link SegmentedLruCache}: ids
+ * and courses stay in memory, records are loaded on a miss, and changes are
+ * written behind by a background flusher or on eviction. If an evicted record
+ * is still held by a mutator, the record is marked detached and the mutator
+ * re-reads the student, so no update is lost.
+ * <p>
+ * Long reports read a {@link Snapshot} instead of the live view: every change
+ * is stamped with a registry clock, and while a snapshot is open the state a
+ * change replaces is kept as an immutable version. A snapshot therefore sees
+ * each record as of the moment it was taken while writers keep going; with
+ * no snapshot open, writers pay only a volatile read.
+ * <p>
+ * Every successful change is also published as a {@link ChangeEvent} on a
+ * bounded {@link ChangeLog} ({@link #changes()}), so downstream consumers
+ * such as search indexes or analytics can follow the registry, or replay
+ * recent history, without polling it. Events are published while holding
+ * the lock that orders the change, so per student and per course the log
+ * order is the order the changes were applied.
+ * <p>
+ * The registry does not print anything; callers turn the returned
+ * {@link Status} into their own messages or dialogs.
+ */
+public final class StudentRegistry {
+    /** Grade value of an enrolled but not yet graded course. */
+    public static final double NO_GRADE = -1;
+    public static final int UNLIMITED_CAPACITY = Integer.MAX_VALUE;
+
+    public enum Status {
+        OK, UNKNOWN_STUDENT, UNKNOWN_COURSE, DUPLICATE, ALREADY_ENROLLED, COURSE_FULL, NOT_ENROLLED, INVALID_GRADE,
+        MISSING_PREREQUISITE, SCHEDULE_CONFLICT, PREREQUISITE_CYCLE
+    }
+
+    // Ids and registration order always stay in memory; records live in exactly one of the two tiers below
+    private final Map<String, Long> registeredIds = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, String> idsByOrder = new ConcurrentSkipListMap<>();
+    private final Map<String, StudentRecord> residentStudents;        // in-memory mode
+    private final SegmentedLruCache<String, StudentRecord> cache;     // disk-backed mode
+    private final DiskStudentStore store;
+    private final Set<StudentRecord> dirtyStudents = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+
+    private final Map<String, CourseRecord> coursesByCode = new ConcurrentHashMap<>();
+    private final List<CourseRecord> coursesBySlot = new CopyOnWriteArrayList<>();
+    private final CourseCatalog catalog = new CourseCatalog();
+    private final AtomicLong registrationSequence = new AtomicLong();
+    private final AtomicInteger totalEnrollments = new AtomicInteger();
+
+    // Snapshot isolation: changes are stamped with `clock`; open snapshots pin the versions they may read
+    private final AtomicLong clock = new AtomicLong();
+    static final long UNPUBLISHED = Long.MAX_VALUE; // stamp of a record no snapshot may see yet
+    private final ConcurrentSkipListMap<Long, Integer> pins = new ConcurrentSkipListMap<>();
+    private final Map<String, StudentRecord.Version> retainedHistory = new ConcurrentHashMap<>(); // of evicted records
+
+    private final ChangeLog<ChangeEvent> changes = new ChangeLog<>(Integer.getInteger("registry.changelog.capacity", 1 << 16));
+
+    /**
+     * Creates a registry that keeps every record in memory.
+     */
+    public StudentRegistry() {
+        this.residentStudents = new ConcurrentHashMap<>();
+        this.cache = null;
+        this.store = null;
+        this.flusher = null;
+    }
+
+    private StudentRegistry(Path directory, long maxCacheBytes) {
+        this.residentStudents = null;
+        this.store = new DiskStudentStore(directory);
+        this.cache = new SegmentedLruCache<>(maxCacheBytes, StudentRecord::estimatedSize, this::load, this::onEvict);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "student-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushDirty, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a registry whose student records spill to a fresh subdirectory of
+     * {@code directory}, keeping at most about {@code maxCacheBytes} of records in memory.
+     */
+    public static StudentRegistry withDiskStore(Path directory, long maxCacheBytes) {
+        return new StudentRegistry(directory, maxCacheBytes);
+    }
+
+    /**
+     * Disk-backed if {@code -Dregistry.spill.dir} is set (cache size from
+     * {@code -Dregistry.cache.bytes}, default 64 MiB), otherwise in-memory.
+     */
+    public static StudentRegistry fromSystemProperties() {
+        String dir = System.getProperty("registry.spill.dir");
+        if (dir == null || dir.isEmpty()) return new StudentRegistry();
+        return withDiskStore(Paths.get(dir), Long.getLong("registry.cache.bytes", 64L << 20));
+    }
+
+    // --- Registration ---
+
+    /**
+     * @return the new course, or null if the code is already registered.
+     */
+    public CourseRecord addCourse(String code, String name, int maxCapacity) {
+        synchronized (coursesBySlot) { // slots must be dense and unique
+            if (coursesByCode.containsKey(code)) return null;
+            CourseRecord course = new CourseRecord(code, name, maxCapacity, coursesBySlot.size(), UNPUBLISHED);
+            catalog.addCourse(course.getSlot());
+            coursesBySlot.add(course);
+            // Stamped once listed, so a snapshot that iterated before the add never sees the course later
+            synchronized (course) {
+                course.setDetails(name, maxCapacity, clock.get(), Long.MAX_VALUE);
+            }
+            coursesByCode.put(code, course);
+            changes.publish(seq -> new ChangeEvent.CourseAdded(seq, code, name, maxCapacity));
+            return course;
+        }
+    }
+
+    /**
+     * Registers a student under a generated 8-character id.
+     */
+    public StudentRecord addStudent(String name, int age) {
+        while (true) {
+            StudentRecord student = addStudent(UUID.randomUUID().toString().substring(0, 8), name, age);
+            if (student != null) return student;
+        }
+    }
+
+    /**
+     * @return the new student, or null if the id is already taken.
+     */
+    public StudentRecord addStudent(String id, String name, int age) {
+        StudentRecord student = new StudentRecord(id, name, age, registrationSequence.incrementAndGet(), UNPUBLISHED);
+        if (registeredIds.putIfAbsent(id, student.getRegistrationOrder()) != null) return null;
+        // Published before the record is reachable, so it precedes every change to the student
+        changes.publish(seq -> new ChangeEvent.StudentAdded(seq, id, name, age));
+        if (cache == null) {
+            residentStudents.put(id, student);
+        } else {
+            synchronized (student) {
+                student.markDirty(); // never written yet
+            }
+            dirtyStudents.add(student);
+            cache.put(id, student);
+        }
+        idsByOrder.put(student.getRegistrationOrder(), id);
+        publish(id);
+        return student;
+    }
+
+    // Stamps a newly listed student; a snapshot that iterated before the listing has a lower stamp
+    private void publish(String id) {
+        while (true) {
+            StudentRecord student = student(id);
+            synchronized (student) {
+                if (student.isDetached()) continue;
+                student.publish(clock.get());
+                if (cache != null) {
+                    student.markDirty();
+                    dirtyStudents.add(student);
+                }
+                return;
+            }
+        }
+    }
+
+    // --- Lookups ---
+
+    public StudentRecord student(String id) {
+        if (cache == null) return residentStudents.get(id);
+        return registeredIds.containsKey(id) ? cache.get(id) : null;
+    }
+
+    public CourseRecord course(String code) { return coursesByCode.get(code); }
+    public CourseRecord courseAt(int slot) { return coursesBySlot.get(slot); }
+
+    /**
+     * @return a live view of all students in registration order. In disk-backed
+     *         mode records are loaded as the view is iterated.
+     */
+    public Collection<StudentRecord> students() {
+        return new AbstractCollection<StudentRecord>() {
+            @Override
+            public Iterator<StudentRecord> iterator() {
+                Iterator<String> ids = idsByOrder.values().iterator();
+                return new Iterator<StudentRecord>() {
+                    @Override
+                    public boolean hasNext() { return ids.hasNext(); }
+
+                    @Override
+                    public StudentRecord next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return student(ids.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() { return idsByOrder.size(); }
+        };
+    }
+
+    /** @return a live view of all courses in registration order. */
+    public List<CourseRecord> courses() { return Collections.unmodifiableList(coursesBySlot); }
+
+    public int studentCount() { return registeredIds.size(); }
+    public int totalEnrollments() { return totalEnrollments.get(); }
+
+    /**
+     * @return the log of changes made through this registry; subscribe with a
+     *         cursor to replay retained events and follow new ones.
+     */
+    public ChangeLog<ChangeEvent> changes() { return changes; }
+
+    // --- Updates ---
+
+    public Status updateStudent(String id, String name, int age) {
+        return mutate(id, student -> {
+            student.setName(name);
+            student.setAge(age);
+            changes.publish(seq -> new ChangeEvent.StudentUpdated(seq, id, name, age));
+            return Status.OK;
+        });
+    }
+
+    public Status renameStudent(String id, String name) {
+        return mutate(id, student -> {
+            student.setName(name);
+            changes.publish(seq -> new ChangeEvent.StudentUpdated(seq, id, name, student.getAge()));
+            return Status.OK;
+        });
+    }
+
+    public Status updateCourse(String code, String name, int maxCapacity) {
+        CourseRecord course = coursesByCode.get(code);
+        if (course == null) return Status.UNKNOWN_COURSE;
+        synchronized (course) { // stamped under the lock snapshots read with, as in mutate
+            course.setDetails(name, maxCapacity, clock.get(), oldestPin());
+            changes.publish(seq -> new ChangeEvent.CourseUpdated(seq, code, name, maxCapacity));
+        }
+        return Status.OK;
+    }
+
+    public Status renameCourse(String code, String name) {
+        CourseRecord course = coursesByCode.get(code);
+        if (course == null) return Status.UNKNOWN_COURSE;
+        synchronized (course) {
+            int maxCapacity = course.getMaxCapacity();
+            course.setDetails(name, maxCapacity, clock.get(), oldestPin());
+            changes.publish(seq -> new ChangeEvent.CourseUpdated(seq, code, name, maxCapacity));
+        }
+        return Status.OK;
+    }
+
+    public Status setCourseCapacity(String code, int maxCapacity) {
+        CourseRecord course = coursesByCode.get(code);
+        if (course == null) return Status.UNKNOWN_COURSE;
+        synchronized (course) {
+            String name = course.getName();
+            course.setDetails(name, maxCapacity, clock.get(), oldestPin());
+            changes.publish(seq -> new ChangeEvent.CourseUpdated(seq, code, name, maxCapacity));
+        }
+        return Status.OK;
+    }
+
+    /**
+     * Replaces a course's direct prerequisites; the transitive closure is
+     * rebuilt for that course and the courses that depend on it. A student
+     * meets a prerequisite by being enrolled in it (see {@link CourseCatalog}).
+     * An empty collection clears them.
+     * @return {@link Status#UNKNOWN_COURSE} if any code is unknown, or
+     *         {@link Status#PREREQUISITE_CYCLE} if the change would make a course require itself.
+     */
+    public Status setPrerequisites(String code, Collection<String> prerequisiteCodes) {
+        CourseRecord course = coursesByCode.get(code);
+        if (course == null) return Status.UNKNOWN_COURSE;
+        int[] slots = new int[prerequisiteCodes.size()];
+        int i = 0;
+        for (String prerequisite : prerequisiteCodes) {
+            CourseRecord required = coursesByCode.get(prerequisite);
+            if (required == null) return Status.UNKNOWN_COURSE;
+            slots[i++] = required.getSlot();
+        }
+        List<String> prerequisites = List.copyOf(prerequisiteCodes);
+        synchronized (course) {
+            if (!catalog.setPrerequisites(course.getSlot(), slots)) return Status.PREREQUISITE_CYCLE;
+            changes.publish(seq -> new ChangeEvent.PrerequisitesChanged(seq, code, prerequisites));
+        }
+        return Status.OK;
+    }
+
+    /**
+     * Replaces a course's weekly meeting hours (see {@link CourseCatalog#hourOfWeek})
+     * and refreshes the timetables of the students already enrolled in it.
+     */
+    public Status setMeetingHours(String code, int[] hoursOfWeek) {
+        CourseRecord course = coursesByCode.get(code);
+        if (course == null) return Status.UNKNOWN_COURSE;
+        List<Integer> hours = Arrays.stream(hoursOfWeek).boxed().toList();
+        synchronized (course) {
+            catalog.setMeetings(course.getSlot(), hoursOfWeek);
+            changes.publish(seq -> new ChangeEvent.MeetingHoursChanged(seq, code, hours));
+        }
+        // Enrollments that raced with the swap re-check the snapshot after joining the roster (see enroll)
+        for (String studentId : course.getRoster()) {
+            mutate(studentId, student -> {
+                student.rebuildTimetable(catalog.snapshot());
+                return Status.OK;
+            });
+        }
+        return Status.OK;
+    }
+
+    /** @return the course's direct prerequisites, in course registration order. */
+    public List<CourseRecord> prerequisitesOf(CourseRecord course) {
+        return coursesIn(catalog.snapshot().directPrerequisites[course.getSlot()]);
+    }
+
+    /** @return the transitive prerequisites of a course the student has not enrolled in yet. */
+    public List<CourseRecord> missingPrerequisites(StudentRecord student, CourseRecord course) {
+        long[] required = catalog.snapshot().prerequisiteClosure[course.getSlot()].clone();
+        long[] enrolled = student.enrollmentBits();
+        for (int w = 0; w < required.length && w < enrolled.length; w++) required[w] &= ~enrolled[w];
+        return coursesIn(required);
+    }
+
+    private List<CourseRecord> coursesIn(long[] slots) {
+        List<CourseRecord> courses = new ArrayList<>();
+        for (int word = 0; word < slots.length; word++) {
+            long remaining = slots[word];
+            while (remaining != 0) {
+                courses.add(coursesBySlot.get((word << 6) + Long.numberOfTrailingZeros(remaining)));
+                remaining &= remaining - 1;
+            }
+        }
+        return courses;
+    }
+
+    // --- Enrollment & Grades ---
+
+    public Status enroll(String studentId, String courseCode) {
+        CourseRecord course = coursesByCode.get(courseCode);
+        if (course == null) return registeredIds.containsKey(studentId) ? Status.UNKNOWN_COURSE : Status.UNKNOWN_STUDENT;
+
+        int slot = course.getSlot();
+        CourseCatalog.Snapshot rules = catalog.snapshot();
+        Status status = mutate(studentId, student -> {
+            if (student.isEnrolled(slot)) return Status.ALREADY_ENROLLED;
+            if (!rules.prerequisitesMet(slot, student.enrolledWords())) return Status.MISSING_PREREQUISITE;
+            if (rules.clashes(slot, student.timetable())) return Status.SCHEDULE_CONFLICT;
+            if (!course.tryReserveSeat()) return Status.COURSE_FULL;
+            student.markEnrolled(slot, rules.meetingsOf(slot));
+            changes.publish(seq -> new ChangeEvent.Enrolled(seq, studentId, courseCode));
+            return Status.OK;
+        });
+        if (status != Status.OK) return status;
+        course.addToRoster(studentId);
+        totalEnrollments.incrementAndGet();
+        if (catalog.snapshot() != rules) {
+            // Meeting hours changed while enrolling; the roster pass in setMeetingHours may have missed us
+            mutate(studentId, student -> {
+                student.rebuildTimetable(catalog.snapshot());
+                return Status.OK;
+            });
+        }
+        return Status.OK;
+    }
+
+    /**
+     * @return the status {@link #enroll} would return right now, without changing anything.
+     *         Concurrent changes may still make the actual enrollment fail.
+     */
+    public Status checkEnrollment(String studentId, String courseCode) {
+        StudentRecord student = student(studentId);
+        if (student == null) return Status.UNKNOWN_STUDENT;
+        CourseRecord course = coursesByCode.get(courseCode);
+        if (course == null) return Status.UNKNOWN_COURSE;
+
+        int slot = course.getSlot();
+        CourseCatalog.Snapshot rules = catalog.snapshot();
+        synchronized (student) {
+            if (student.isEnrolled(slot)) return Status.ALREADY_ENROLLED;
+            if (!rules.prerequisitesMet(slot, student.enrolledWords())) return Status.MISSING_PREREQUISITE;
+            if (rules.clashes(slot, student.timetable())) return Status.SCHEDULE_CONFLICT;
+        }
+        return course.getEnrolledCount() >= course.getMaxCapacity() ? Status.COURSE_FULL : Status.OK;
+    }
+
+    /**
+     * @param grade value between 0 and 100.
+     */
+    public Status assignGrade(String studentId, String courseCode, double grade) {
+        CourseRecord course = coursesByCode.get(courseCode);
+        if (course == null) return registeredIds.containsKey(studentId) ? Status.UNKNOWN_COURSE : Status.UNKNOWN_STUDENT;
+
+        return mutate(studentId, student -> {
+            if (!student.isEnrolled(course.getSlot())) return Status.NOT_ENROLLED;
+            if (!(grade >= 0 && grade <= 100)) return Status.INVALID_GRADE;
+            student.setGrade(course.getSlot(), grade);
+            changes.publish(seq -> new ChangeEvent.GradeAssigned(seq, studentId, courseCode, grade));
+            return Status.OK;
+        });
+    }
+
+    /**
+     * Runs {@code change} under the student's monitor, retrying if the record was
+     * evicted in the meantime, and queues the record for write-behind on success.
+     */
+    private Status mutate(String studentId, Function<StudentRecord, Status> change) {
+        while (true) {
+            StudentRecord student = student(studentId);
+            if (student == null) return Status.UNKNOWN_STUDENT;
+            Status status;
+            synchronized (student) {
+                if (student.isDetached()) continue;
+                // Stamped under the monitor, clock before pins. A snapshot stamped at or below this change
+                // ticked the clock after our read, so it had pinned and we keep the version it reads; one
+                // stamped above it ticked before reading this record, so it waits for the commit.
+                long stamp = clock.get();
+                long oldestPin = oldestPin();
+                StudentRecord.Version before = oldestPin == Long.MAX_VALUE ? null : student.freeze();
+                status = change.apply(student);
+                if (status != Status.OK) return status;
+                student.commit(stamp, before, oldestPin);
+                if (cache != null) {
+                    student.markDirty();
+                    dirtyStudents.add(student);
+                }
+            }
+            // A change can grow the record. The cache locks before records, so re-weigh after releasing it.
+            if (cache != null) cache.reweigh(studentId);
+            return status;
+        }
+    }
+
+    /**
+     * @return the student's enrolled courses mapped to their grades
+     *         ({@link #NO_GRADE} if pending), in course registration order.
+     */
+    public Map<CourseRecord, Double> gradesOf(StudentRecord student) {
+        long[] bits = student.enrollmentBits();
+        Map<CourseRecord, Double> grades = new LinkedHashMap<>();
+        for (int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                grades.put(coursesBySlot.get(slot), student.getGrade(slot));
+            }
+        }
+        return grades;
+    }
+
+    /** @return the courses a student is enrolled in, in course registration order. */
+    public List<CourseRecord> coursesOf(StudentRecord student) {
+        return new ArrayList<>(gradesOf(student).keySet());
+    }
+
+    // --- Snapshots ---
+
+    /**
+     * Opens a point-in-time view for reports and exports. Close it when done
+     * (try-with-resources), since superseded versions are kept while it is open.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot();
+    }
+
+    private long oldestPin() {
+        Map.Entry<Long, Integer> oldest = pins.firstEntry();
+        return oldest == null ? Long.MAX_VALUE : oldest.getKey();
+    }
+
+    /**
+     * Read-only view of the registry as of one clock stamp. Each record is seen
+     * with every change stamped before it and none at or after, regardless of
+     * concurrent writers, so repeated reads agree. Not thread-safe; use one snapshot per report.
+     */
+    public final class Snapshot implements AutoCloseable {
+        private final long pin;
+        private final long stamp;
+        private int[] enrollmentCounts; // by course slot, from one pass over the students
+        private int studentCount;
+        private boolean closed;
+
+        private Snapshot() {
+            synchronized (pins) {
+                pin = clock.get();
+                pins.merge(pin, 1, Integer::sum);
+            }
+            // Pinned before the tick, so writers that read the clock after it keep what we may read
+            stamp = clock.incrementAndGet();
+        }
+
+        /** @return the courses that existed at the snapshot, with their details at that time. */
+        public List<CourseRecord.Version> courses() {
+            List<CourseRecord.Version> courses = new ArrayList<>();
+            for (CourseRecord course : coursesBySlot) {
+                CourseRecord.Version version = course.versionAt(stamp);
+                if (version != null) courses.add(version);
+            }
+            return courses;
+        }
+
+        /** @return the students registered at the snapshot, in registration order, loaded lazily. */
+        public Stream<StudentRecord.Version> students() {
+            return idsByOrder.values().stream().map(this::studentVersion).filter(s -> s != null);
+        }
+
+        private StudentRecord.Version studentVersion(String id) {
+            while (true) {
+                StudentRecord student = student(id);
+                if (student == null) return null;
+                synchronized (student) {
+                    if (!student.isDetached()) return student.versionAt(stamp);
+                }
+            }
+        }
+
+        /** Same as {@link StudentRegistry#gradesOf}, for a student version. */
+        public Map<CourseRecord, Double> gradesOf(StudentRecord.Version student) {
+            Map<CourseRecord, Double> grades = new LinkedHashMap<>();
+            long[] bits = student.enrollmentBits();
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    grades.put(coursesBySlot.get(slot), student.getGrade(slot));
+                }
+            }
+            return grades;
+        }
+
+        public int studentCount() {
+            countEnrollments();
+            return studentCount;
+        }
+
+        public int enrolledIn(CourseRecord.Version course) {
+            int[] counts = countEnrollments();
+            return course.getSlot() < counts.length ? counts[course.getSlot()] : 0;
+        }
+
+        public int totalEnrollments() {
+            int total = 0;
+            for (int count : countEnrollments()) total += count;
+            return total;
+        }
+
+        // Derived from the student versions rather than the live course counters, so totals match the rows
+        private int[] countEnrollments() {
+            if (enrollmentCounts != null) return enrollmentCounts;
+            int[] counts = new int[coursesBySlot.size()];
+            int students = 0;
+            Iterator<StudentRecord.Version> it = students().iterator();
+            while (it.hasNext()) {
+                StudentRecord.Version student = it.next();
+                students++;
+                long[] bits = student.enrollmentBits();
+                for (int word = 0; word < bits.length; word++) {
+                    long remaining = bits[word];
+                    while (remaining != 0) {
+                        counts[(word << 6) + Long.numberOfTrailingZeros(remaining)]++;
+                        remaining &= remaining - 1;
+                    }
+                }
+            }
+            studentCount = students;
+            return enrollmentCounts = counts;
+        }
+
+        public long stamp() { return stamp; }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            synchronized (pins) {
+                pins.computeIfPresent(pin, (p, open) -> open == 1 ? null : open - 1);
+                if (pins.isEmpty()) retainedHistory.clear();
+            }
+        }
+    }
+
+    // --- Disk Spill ---
+
+    // Cache loader: re-attaches versions an open snapshot may still need
+    private StudentRecord load(String id) {
+        StudentRecord student = store.read(id);
+        StudentRecord.Version history = retainedHistory.get(id);
+        if (student != null && history != null) {
+            synchronized (student) {
+                student.adoptHistory(history);
+            }
+        }
+        return student;
+    }
+
+    // Called by the cache with its lock held, so the record cannot be reloaded before it is written
+    private void onEvict(String id, StudentRecord student) {
+        synchronized (student) {
+            if (student.isDirty()) {
+                store.write(student);
+                student.markClean();
+            }
+            student.detach();
+            if (student.history() != null && !pins.isEmpty()) retainedHistory.put(id, student.history());
+        }
+        dirtyStudents.remove(student);
+    }
+
+    private void flushDirty() {
+        for (StudentRecord student : dirtyStudents) {
+            dirtyStudents.remove(student); // a later change re-adds it
+            synchronized (student) {
+                if (student.isDirty() && !student.isDetached()) {
+                    store.write(student);
+                    student.markClean();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every pending change to disk (no-op for in-memory registries).
+     */
+    public void flush() {
+        if (cache != null) flushDirty();
+    }
+
+    /**
+     * Stops the write-behind thread and deletes the spill files. The registry
+     * must not be used afterwards.
+     */
+    public void close() {
+        if (cache == null) return;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.close();
+    }
+
+    /** @return cache and store counters, or a note that the registry is in-memory. */
+    public String storageStats() {
+        if (cache == null) return "StudentRegistry[in-memory, students=" + studentCount() + "]";
+        return "StudentRegistry[students=" + studentCount() + ", " + cache
+             + ", diskReads=" + store.readCount() + ", diskWrites=" + store.writeCount()
+             + ", pendingWrites=" + dirtyStudents.size() + "]";
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link MaskedKernels} on the incubating Vector API: each step compares a
+ * full register of lanes, turns the result into a lane mask and accumulates
+ * count, sum, min and max under that mask; the last partial register is
+ * finished with the scalar kernels. Vectors are reduced to scalars before
+ * anything is passed to a call, so C2 can keep them in registers instead of
+ * boxing them. Loaded reflectively by
+ * {@link MaskedKernels#get()}; needs {@code --add-modules jdk.incubator.vector}
+ * to compile and to run.
+ */
+final class VectorMaskedKernels extends MaskedKernels {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // Keys filtering doubles need one int lane per double lane, i.e. half the register width
+    private static final VectorSpecies<Integer> KEYS = DOUBLES.length() < 2 ? null
+            : IntVector.SPECIES_PREFERRED.withShape(VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    // Lane masks for every bit pattern of one register's worth of bitset: pattern p starts at p * lanes
+    private static final boolean[] LANE_PATTERNS = lanePatterns(DOUBLES.length());
+
+    VectorMaskedKernels() {
+        if (KEYS == null || INTS.length() != 2 * LONGS.length()) {
+            throw new UnsupportedOperationException("No usable vector shape: " + DOUBLES);
+        }
+    }
+
+    private static boolean[] lanePatterns(int lanes) {
+        boolean[] patterns = new boolean[(1 << lanes) * lanes];
+        for (int p = 0; p < 1 << lanes; p++) {
+            for (int lane = 0; lane < lanes; lane++) patterns[p * lanes + lane] = (p & (1 << lane)) != 0;
+        }
+        return patterns;
+    }
+
+    @Override
+    public String name() { return "vector(" + DOUBLES.vectorBitSize() + "-bit)"; }
+
+    @Override
+    public IntSummaryStatistics summarizeAbove(int[] values, int from, int to, int threshold) {
+        IntVector mins = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        IntVector maxs = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        IntVector zero = IntVector.zero(INTS);
+        // int lanes could overflow, so selected values are widened into long lanes before summing
+        LongVector sums = LongVector.zero(LONGS);
+        long count = 0;
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            IntVector v = IntVector.fromArray(INTS, values, i);
+            VectorMask<Integer> match = v.compare(VectorOperators.GT, threshold);
+            count += match.trueCount();
+            mins = mins.min(IntVector.broadcast(INTS, Integer.MAX_VALUE).blend(v, match));
+            maxs = maxs.max(IntVector.broadcast(INTS, Integer.MIN_VALUE).blend(v, match));
+            IntVector selected = zero.blend(v, match);
+            sums = sums.add((LongVector) selected.convertShape(VectorOperators.I2L, LONGS, 0))
+                       .add((LongVector) selected.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+        IntSummaryStatistics result = new IntSummaryStatistics(count, mins.reduceLanes(VectorOperators.MIN),
+                                                               maxs.reduceLanes(VectorOperators.MAX), sums.reduceLanes(VectorOperators.ADD));
+        result.combine(scalar().summarizeAbove(values, i, to, threshold));
+        return result;
+    }
+
+    @Override
+    public DoubleSummaryStatistics summarize(double[] values, int from, int to) {
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        DoubleVector mins = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        DoubleVector maxs = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, values, i);
+            sums = sums.add(v);
+            mins = mins.min(v);
+            maxs = maxs.max(v);
+        }
+        DoubleSummaryStatistics result = new DoubleSummaryStatistics(i - from, mins.reduceLanes(VectorOperators.MIN),
+                                                                     maxs.reduceLanes(VectorOperators.MAX), sums.reduceLanes(VectorOperators.ADD));
+        result.combine(scalar().summarize(values, i, to));
+        return result;
+    }
+
+    @Override
+    public DoubleSummaryStatistics summarizeWhereAbove(double[] values, int[] keys, int from, int to, int threshold) {
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        DoubleVector mins = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        DoubleVector maxs = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        long count = 0;
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            // Widen the keys and compare as doubles: the mask then already has the salaries' lane type
+            VectorMask<Double> match = IntVector.fromArray(KEYS, keys, i).convertShape(VectorOperators.I2D, DOUBLES, 0)
+                                                .compare(VectorOperators.GT, threshold);
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, values, i);
+            count += match.trueCount();
+            sums = sums.add(v, match);
+            mins = mins.min(DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY).blend(v, match));
+            maxs = maxs.max(DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY).blend(v, match));
+        }
+        DoubleSummaryStatistics result = new DoubleSummaryStatistics(count, mins.reduceLanes(VectorOperators.MIN),
+                                                                     maxs.reduceLanes(VectorOperators.MAX), sums.reduceLanes(VectorOperators.ADD));
+        result.combine(scalar().summarizeWhereAbove(values, keys, i, to, threshold));
+        return result;
+    }
+
+    @Override
+    public DoubleSummaryStatistics summarizeSelected(double[] values, long[] selected, double skip) {
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        DoubleVector mins = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        DoubleVector maxs = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        long vectorCount = 0;
+        long count = 0;
+        double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        int lanes = DOUBLES.length(); // at most 8 and divides 64, so a step never straddles two bitset words
+        long laneBits = (1L << lanes) - 1;
+        // A word with fewer set bits than vector steps is cheaper to walk bit by bit, which
+        // also skips empty words, so sparse bitsets cost O(set bits) rather than O(slots).
+        // Dense words are queued and summed in a second loop with no branch around the
+        // vector updates, which would make C2 box the accumulators.
+        int denseBits = 64 / lanes;
+        int words = (int) Math.min(selected.length, (values.length + 63L) >>> 6);
+        int[] denseWords = new int[words];
+        int dense = 0;
+        for (int word = 0; word < words; word++) {
+            long bits = selected[word];
+            int base = word << 6;
+            int slots = values.length - base;
+            if (slots >= 64 && Long.bitCount(bits) >= denseBits) {
+                denseWords[dense++] = word;
+                continue;
+            }
+            if (slots < 64) bits &= (1L << slots) - 1; // bits past the end of values are ignored
+            while (bits != 0) {
+                double v = values[base + Long.numberOfTrailingZeros(bits)];
+                bits &= bits - 1;
+                if (v != skip) {
+                    count++;
+                    sum += v;
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+            }
+        }
+        for (int d = 0; d < dense; d++) {
+            int base = denseWords[d] << 6;
+            long bits = selected[denseWords[d]];
+            for (int offset = 0; offset < 64; offset += lanes) {
+                DoubleVector v = DoubleVector.fromArray(DOUBLES, values, base + offset);
+                VectorMask<Double> chosen = VectorMask.fromArray(DOUBLES, LANE_PATTERNS, (int) ((bits >>> offset) & laneBits) * lanes);
+                VectorMask<Double> match = v.compare(VectorOperators.NE, skip, chosen);
+                vectorCount += match.trueCount();
+                sums = sums.add(v, match);
+                mins = mins.min(DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY).blend(v, match));
+                maxs = maxs.max(DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY).blend(v, match));
+            }
+        }
+        DoubleSummaryStatistics result = new DoubleSummaryStatistics(vectorCount, mins.reduceLanes(VectorOperators.MIN),
+                                                                     maxs.reduceLanes(VectorOperators.MAX), sums.reduceLanes(VectorOperators.ADD));
+        result.combine(new DoubleSummaryStatistics(count, min, max, sum));
+        return result;
+    }
+}
@@ -1,17 +1,51 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.time.Year;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 /**
  * MAIN PROGRAM: VehicleRentalSystem
  * Moved to the top of the file to ensure the environment identifies 
  * the entry point correctly.
+ * Runs through the source launcher with the shared Metrics class on the class path
+ * (from the repository root):
+ * <pre>
+ * javac -d /tmp/metrics Metrics.java
+ * java -cp /tmp/metrics VehicleInformationSystem.java
+ * </pre>
  */
 public class VehicleRentalSystem {
     private static final Scanner scanner = new Scanner(System.in);
     private static final List<Vehicle> fleet = new ArrayList<>();
 
+    // Instrumentation (see Metrics.java)
+    private static final Metrics.Counter addVehicleCount = Metrics.counter("fleet.addVehicle");
+    private static final Metrics.LatencyHistogram displayLatency = Metrics.histogram("fleet.display.latency");
+
     public static void main(String[] args) {
+        // java -cp /tmp/metrics VehicleInformationSystem.java --benchmark [vehicles] [rounds]
+        if (args.length > 0 && args[0].equals("--benchmark")) {
+            FleetAnalyticsBenchmark.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Metrics.startDumpFromSystemProperties();
         System.out.println("==========================================");
         System.out.println("   CAR RENTAL AGENCY INFORMATION SYSTEM   "); 
         System.out.println("==========================================");
@@ -26,11 +60,13 @@ public class VehicleRentalSystem {
                 case "2" -> addVehicle("Motorcycle");
                 case "3" -> addVehicle("Truck");
                 case "4" -> displayAllVehicles();
+                case "6" -> displayFleetAnalytics();
+                case "7" -> System.out.print(Metrics.report());
                 case "5" -> {
                     System.out.println("Shutting down system...");
                     exit = true;
                 }
-                default -> System.out.println("Invalid selection. Please enter 1-5.");
+                default -> System.out.println("Invalid selection. Please enter 1-7.");
             }
         }
         scanner.close();
@@ -42,7 +78,9 @@ public class VehicleRentalSystem {
         System.out.println("2. Add a Motorcycle");
         System.out.println("3. Add a Truck");
         System.out.println("4. Display Inventory");
-        System.out.println("5. Exit");
+        System.out.println("6. Fleet Analytics");
+        System.out.println("7. Show Metrics");
+        System.out.println("5. Exit"); // keeps its original number so existing input still exits
         System.out.print("Selection: ");
     }
 
@@ -56,28 +94,29 @@ public class VehicleRentalSystem {
             int year = getValidInteger("Enter Year of Manufacture: ");
 
             if (type.equals("Car")) {
-                Car car = new Car(make, model, year);
-                car.setNumDoors(getValidInteger("Number of Doors: "));
+                Car.Builder car = Car.builder().make(make).model(model).year(year);
+                car.numDoors(getValidInteger("Number of Doors: "));
                 System.out.print("Fuel Type (Petrol/Diesel/Electric): ");
-                car.setFuelType(scanner.nextLine());
-                fleet.add(car);
+                car.fuelType(scanner.nextLine());
+                fleet.add(car.build());
             } 
             else if (type.equals("Motorcycle")) {
-                Motorcycle bike = new Motorcycle(make, model, year);
-                bike.setNumWheels(getValidInteger("Number of Wheels: "));
+                Motorcycle.Builder bike = Motorcycle.builder().make(make).model(model).year(year);
+                bike.numWheels(getValidInteger("Number of Wheels: "));
                 System.out.print("Motorcycle Type (Sport/Cruiser/Off-road): ");
-                bike.setMotorcycleType(scanner.nextLine());
-                fleet.add(bike);
+                bike.motorcycleType(scanner.nextLine());
+                fleet.add(bike.build());
             } 
             else if (type.equals("Truck")) {
-                Truck truck = new Truck(make, model, year);
+                Truck.Builder truck = Truck.builder().make(make).model(model).year(year);
                 System.out.print("Cargo Capacity (tons): ");
                 String capInput = scanner.nextLine();
-                truck.setCargoCapacity(Double.parseDouble(capInput));
+                truck.cargoCapacity(Double.parseDouble(capInput));
                 System.out.print("Transmission Type (Manual/Automatic): ");
-                truck.setTransmissionType(scanner.nextLine());
-                fleet.add(truck);
+                truck.transmissionType(scanner.nextLine());
+                fleet.add(truck.build());
             }
+            addVehicleCount.increment();
             System.out.println("\nSUCCESS: " + type + " added to system.");
         } catch (Exception e) {
             System.out.println("\nERROR: Invalid input provided. Vehicle creation aborted.");
@@ -85,15 +124,48 @@ public class VehicleRentalSystem {
     }
 
     private static void displayAllVehicles() {
+        long start = System.nanoTime();
         System.out.println("\n--- CURRENT FLEET INVENTORY ---");
         if (fleet.isEmpty()) {
             System.out.println("The inventory is currently empty.");
         } else {
-            for (int i = 0; i < fleet.size(); i++) {
-                System.out.print((i + 1) + ". ");
-                fleet.get(i).displayDetails();
+            // Rendered into large chunks instead of two locked, flushed writes per vehicle
+            Writer console = InventoryRenderer.consoleWriter();
+            try {
+                int shown = 0;
+                while (shown < fleet.size()) {
+                    int end = Math.min(shown + InventoryRenderer.PAGE_SIZE, fleet.size());
+                    InventoryRenderer.render(fleet, shown, end, console);
+                    console.flush();
+                    shown = end;
+                    if (shown < fleet.size()) {
+                        long prompted = System.nanoTime();
+                        System.out.print("-- Showing 1-" + shown + " of " + fleet.size()
+                                         + ". Enter for the next page, 'a' for all, 'q' to stop: ");
+                        String answer = scanner.nextLine().trim();
+                        start += System.nanoTime() - prompted; // one sample per listing, minus time at the prompt
+                        if (answer.equalsIgnoreCase("q")) break;
+                        if (answer.equalsIgnoreCase("a")) {
+                            InventoryRenderer.render(fleet, shown, fleet.size(), console);
+                            console.flush();
+                            break;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
+        displayLatency.recordSince(start);
+    }
+
+    private static void displayFleetAnalytics() {
+        System.out.println("\n--- FLEET ANALYTICS ---");
+        if (fleet.isEmpty()) {
+            System.out.println("The inventory is currently empty.");
+            return;
+        }
+        System.out.print(FleetAnalytics.of(fleet, Year.now().getValue(), fleet.size() >= FleetAnalytics.PARALLEL_THRESHOLD));
     }
 
     private static int getValidInteger(String prompt) {
@@ -106,116 +178,564 @@ public class VehicleRentalSystem {
             }
         }
     }
+
 }
 
 /**
  * VEHICLE INTERFACE HIERARCHY
  */
 
+enum VehicleType { CAR, MOTORCYCLE, TRUCK }
+
 interface Vehicle {
+    /** Type tag, so fleet-wide code can switch on it instead of testing instanceof. */
+    VehicleType getType();
     String getMake();
     String getModel();
     int getYear();
-    void displayDetails();
+
+    /**
+     * Appends this vehicle's one-line description (without a line break) to {@code out}.
+     */
+    void appendDetails(Appendable out) throws IOException;
+
+    default void displayDetails() {
+        StringBuilder line = new StringBuilder(96);
+        try {
+            appendDetails(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        System.out.println(line);
+    }
 }
 
 interface CarVehicle {
-    void setNumDoors(int doors);
     int getNumDoors();
-    void setFuelType(String fuelType);
     String getFuelType();
 }
 
 interface MotorVehicle {
-    void setNumWheels(int wheels);
     int getNumWheels();
-    void setMotorcycleType(String type);
     String getMotorcycleType();
 }
 
 interface TruckVehicle {
-    void setCargoCapacity(double capacity);
     double getCargoCapacity();
-    void setTransmissionType(String transmission);
     String getTransmissionType();
 }
 
 /**
  * CONCRETE CLASS IMPLEMENTATIONS
+ * Vehicles are immutable records, so they can be shared between threads
+ * without copying. Their low-cardinality strings go through {@link VehicleStringPool},
+ * so a fleet holds one copy of each make, fuel type, style and transmission,
+ * and pooled values can be compared by identity. Models are mostly distinct
+ * and are stored as given.
  */
 
-class Car implements Vehicle, CarVehicle {
-    private String make, model, fuelType;
-    private int year, numDoors;
-
-    public Car(String make, String model, int year) {
-        this.make = make;
-        this.model = model;
-        this.year = year;
+record Car(String make, String model, int year, int numDoors, String fuelType) implements Vehicle, CarVehicle {
+    Car {
+        make = VehicleStringPool.canonical(make);
+        fuelType = VehicleStringPool.canonical(fuelType);
     }
 
+    static Builder builder() { return new Builder(); }
+
+    @Override public VehicleType getType() { return VehicleType.CAR; }
     @Override public String getMake() { return make; }
     @Override public String getModel() { return model; }
     @Override public int getYear() { return year; }
-    @Override public void setNumDoors(int doors) { this.numDoors = doors; }
     @Override public int getNumDoors() { return numDoors; }
-    @Override public void setFuelType(String fuelType) { this.fuelType = fuelType; }
     @Override public String getFuelType() { return fuelType; }
 
     @Override
-    public void displayDetails() {
-        System.out.println("Type: Car | " + year + " " + make + " " + model + 
-                           " | Doors: " + numDoors + " | Fuel: " + fuelType);
+    public void appendDetails(Appendable out) throws IOException {
+        out.append("Type: Car | ").append(String.valueOf(year)).append(' ').append(make).append(' ').append(model)
+           .append(" | Doors: ").append(String.valueOf(numDoors)).append(" | Fuel: ").append(fuelType);
     }
-}
 
-class Motorcycle implements Vehicle, MotorVehicle {
-    private String make, model, type;
-    private int year, wheels;
+    static final class Builder extends VehicleBuilder<Builder> {
+        private int numDoors;
+        private String fuelType;
+
+        Builder numDoors(int numDoors) { this.numDoors = numDoors; return this; }
+        Builder fuelType(String fuelType) { this.fuelType = fuelType; return this; }
+
+        Car build() { return new Car(make, model, year, numDoors, fuelType); }
+    }
+}
 
-    public Motorcycle(String make, String model, int year) {
-        this.make = make;
-        this.model = model;
-        this.year = year;
+record Motorcycle(String make, String model, int year, int numWheels, String motorcycleType) implements Vehicle, MotorVehicle {
+    Motorcycle {
+        make = VehicleStringPool.canonical(make);
+        motorcycleType = VehicleStringPool.canonical(motorcycleType);
     }
 
+    static Builder builder() { return new Builder(); }
+
+    @Override public VehicleType getType() { return VehicleType.MOTORCYCLE; }
     @Override public String getMake() { return make; }
     @Override public String getModel() { return model; }
     @Override public int getYear() { return year; }
-    @Override public void setNumWheels(int wheels) { this.wheels = wheels; }
-    @Override public int getNumWheels() { return wheels; }
-    @Override public void setMotorcycleType(String type) { this.type = type; }
-    @Override public String getMotorcycleType() { return type; }
+    @Override public int getNumWheels() { return numWheels; }
+    @Override public String getMotorcycleType() { return motorcycleType; }
 
     @Override
-    public void displayDetails() {
-        System.out.println("Type: Motorcycle | " + year + " " + make + " " + model + 
-                           " | Wheels: " + wheels + " | Style: " + type);
+    public void appendDetails(Appendable out) throws IOException {
+        out.append("Type: Motorcycle | ").append(String.valueOf(year)).append(' ').append(make).append(' ').append(model)
+           .append(" | Wheels: ").append(String.valueOf(numWheels)).append(" | Style: ").append(motorcycleType);
     }
-}
 
-class Truck implements Vehicle, TruckVehicle {
-    private String make, model, transmission;
-    private int year;
-    private double capacity;
+    static final class Builder extends VehicleBuilder<Builder> {
+        private int numWheels;
+        private String motorcycleType;
+
+        Builder numWheels(int numWheels) { this.numWheels = numWheels; return this; }
+        Builder motorcycleType(String motorcycleType) { this.motorcycleType = motorcycleType; return this; }
 
-    public Truck(String make, String model, int year) {
-        this.make = make;
-        this.model = model;
-        this.year = year;
+        Motorcycle build() { return new Motorcycle(make, model, year, numWheels, motorcycleType); }
+    }
+}
+
+record Truck(String make, String model, int year, double cargoCapacity, String transmissionType) implements Vehicle, TruckVehicle {
+    Truck {
+        make = VehicleStringPool.canonical(make);
+        transmissionType = VehicleStringPool.canonical(transmissionType);
     }
 
+    static Builder builder() { return new Builder(); }
+
+    @Override public VehicleType getType() { return VehicleType.TRUCK; }
     @Override public String getMake() { return make; }
     @Override public String getModel() { return model; }
     @Override public int getYear() { return year; }
-    @Override public void setCargoCapacity(double capacity) { this.capacity = capacity; }
-    @Override public double getCargoCapacity() { return capacity; }
-    @Override public void setTransmissionType(String transmission) { this.transmission = transmission; }
-    @Override public String getTransmissionType() { return transmission; }
+    @Override public double getCargoCapacity() { return cargoCapacity; }
+    @Override public String getTransmissionType() { return transmissionType; }
 
     @Override
-    public void displayDetails() {
-        System.out.println("Type: Truck | " + year + " " + make + " " + model + 
-                           " | Capacity: " + capacity + " Tons | Gearbox: " + transmission);
+    public void appendDetails(Appendable out) throws IOException {
+        out.append("Type: Truck | ").append(String.valueOf(year)).append(' ').append(make).append(' ').append(model)
+           .append(" | Capacity: ").append(String.valueOf(cargoCapacity)).append(" Tons | Gearbox: ").append(transmissionType);
+    }
+
+    static final class Builder extends VehicleBuilder<Builder> {
+        private double cargoCapacity;
+        private String transmissionType;
+
+        Builder cargoCapacity(double cargoCapacity) { this.cargoCapacity = cargoCapacity; return this; }
+        Builder transmissionType(String transmissionType) { this.transmissionType = transmissionType; return this; }
+
+        Truck build() { return new Truck(make, model, year, cargoCapacity, transmissionType); }
+    }
+}
+
+/**
+ * Fields shared by every vehicle builder; {@code B} is the concrete builder type.
+ */
+abstract class VehicleBuilder<B extends VehicleBuilder<B>> {
+    protected String make, model;
+    protected int year;
+
+    @SuppressWarnings("unchecked")
+    private B self() { return (B) this; }
+
+    B make(String make) { this.make = make; return self(); }
+    B model(String model) { this.model = model; return self(); }
+    B year(int year) { this.year = year; return self(); }
+}
+
+/**
+ * Canonicalizing intern pool for the strings vehicles repeat. Unlike
+ * {@link String#intern()}, it lives on the ordinary heap and is seeded with
+ * the labels analytics compares against, so pooled values match them by identity.
+ * The pool is bounded: once it holds {@link #MAX_SIZE} values, new ones are
+ * returned as given rather than pooled.
+ */
+final class VehicleStringPool {
+    static final int MAX_SIZE = 4096;
+    private static final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    static {
+        for (String label : FleetAnalytics.FUEL_TYPES) canonical(label);
+        for (String label : FleetAnalytics.TRANSMISSIONS) canonical(label);
+        for (String label : new String[] {"Sport", "Cruiser", "Off-road"}) canonical(label);
+    }
+
+    private VehicleStringPool() {}
+
+    /** @return the pooled instance equal to {@code value} (null stays null). */
+    static String canonical(String value) {
+        if (value == null) return null;
+        String pooled = pool.get(value);
+        if (pooled != null) return pooled;
+        if (pool.size() >= MAX_SIZE) return value;
+        pooled = pool.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+
+    static int size() { return pool.size(); }
+}
+
+/**
+ * INVENTORY RENDERING
+ * Writes numbered inventory lines ("1. Type: Car | ...") for a range of the
+ * fleet. Lines are collected in a reusable chunk buffer and handed to the
+ * target in pieces of about {@link #CHUNK_CHARS} characters, so a large
+ * listing costs a few big writes instead of two synchronized, flushed
+ * console writes per vehicle. Ranges make paging and streaming the same call.
+ */
+class InventoryRenderer {
+    static final int PAGE_SIZE = 100;
+    static final int CHUNK_CHARS = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Renders vehicles {@code from} (inclusive) to {@code to} (exclusive), numbered from {@code from + 1}.
+     * The caller flushes {@code out} if it buffers.
+     */
+    static void render(List<Vehicle> fleet, int from, int to, Appendable out) throws IOException {
+        StringBuilder chunk = new StringBuilder((int) Math.min(CHUNK_CHARS + 256L, (to - from) * 96L + 16));
+        for (int i = from; i < to; i++) {
+            chunk.append(i + 1).append(". ");
+            fleet.get(i).appendDetails(chunk);
+            chunk.append(LINE_SEPARATOR);
+            if (chunk.length() >= CHUNK_CHARS) {
+                out.append(chunk);
+                chunk.setLength(0);
+            }
+        }
+        if (chunk.length() > 0) out.append(chunk);
+    }
+
+    /**
+     * A writer over {@link System#out} that passes whole chunks through, so
+     * the stream's lock is taken once per chunk. Flush it; never close it.
+     */
+    static Writer consoleWriter() {
+        return consoleWriter(System.out);
+    }
+
+    static Writer consoleWriter(PrintStream stream) {
+        OutputStream chunked = new BufferedOutputStream(stream, CHUNK_CHARS * 2);
+        return new OutputStreamWriter(chunked, Charset.defaultCharset());
+    }
+}
+
+/**
+ * FLEET ANALYTICS
+ * Single-pass aggregation over the fleet: counts and age distribution by make
+ * and type, the fuel mix of cars, and truck cargo capacity by transmission.
+ * <p>
+ * Vehicles are dispatched on their {@link VehicleType} tag, and every figure
+ * lands in a primitive array indexed by (make, type), so the hot loop neither
+ * chains instanceof tests nor builds string keys. Makes are mapped to dense
+ * indexes once per distinct make. With a parallel stream each worker fills
+ * its own accumulator and the partial results are merged at the end.
+ */
+class FleetAnalytics {
+    static final int PARALLEL_THRESHOLD = 100_000;
+
+    static final String[] FUEL_TYPES = {"Petrol", "Diesel", "Electric"};
+    static final String[] TRANSMISSIONS = {"Manual", "Automatic"};
+    // Upper bounds (exclusive) of the age buckets 0-2, 3-5, 6-10, 11-20; the last bucket is 21+
+    private static final int[] AGE_LIMITS = {3, 6, 11, 21};
+    private static final String[] AGE_LABELS = {"0-2", "3-5", "6-10", "11-20", "21+"};
+    private static final int TYPES = VehicleType.values().length;
+    private static final int AGE_BUCKETS = AGE_LABELS.length;
+
+    private final int currentYear;
+    private final Map<String, Integer> makeIndex = new HashMap<>();
+    private final List<String> makes = new ArrayList<>();
+
+    // Indexed by group = make * TYPES + type
+    private long[] counts = new long[16 * TYPES];
+    private long[] ageSums = new long[16 * TYPES];
+    private long[] ageHistogram = new long[16 * TYPES * AGE_BUCKETS];
+
+    private final long[] fuelCounts = new long[FUEL_TYPES.length + 1];        // last slot: other/unknown
+    private final double[] cargoByTransmission = new double[TRANSMISSIONS.length + 1];
+    private final long[] trucksByTransmission = new long[TRANSMISSIONS.length + 1];
+
+    FleetAnalytics(int currentYear) {
+        this.currentYear = currentYear;
+    }
+
+    void accept(Vehicle vehicle) {
+        VehicleType type = vehicle.getType();
+        int group = makeSlot(vehicle.getMake()) * TYPES + type.ordinal();
+        int age = Math.max(0, currentYear - vehicle.getYear());
+        counts[group]++;
+        ageSums[group] += age;
+        ageHistogram[group * AGE_BUCKETS + ageBucket(age)]++;
+
+        switch (type) {
+            case CAR -> fuelCounts[category(((CarVehicle) vehicle).getFuelType(), FUEL_TYPES)]++;
+            case TRUCK -> {
+                TruckVehicle truck = (TruckVehicle) vehicle;
+                int transmission = category(truck.getTransmissionType(), TRANSMISSIONS);
+                cargoByTransmission[transmission] += truck.getCargoCapacity();
+                trucksByTransmission[transmission]++;
+            }
+            case MOTORCYCLE -> { }
+        }
+    }
+
+    FleetAnalytics combine(FleetAnalytics other) {
+        for (int m = 0; m < other.makes.size(); m++) {
+            int target = makeSlot(other.makes.get(m));
+            for (int t = 0; t < TYPES; t++) {
+                int from = m * TYPES + t, to = target * TYPES + t;
+                counts[to] += other.counts[from];
+                ageSums[to] += other.ageSums[from];
+                for (int b = 0; b < AGE_BUCKETS; b++) {
+                    ageHistogram[to * AGE_BUCKETS + b] += other.ageHistogram[from * AGE_BUCKETS + b];
+                }
+            }
+        }
+        for (int i = 0; i < fuelCounts.length; i++) fuelCounts[i] += other.fuelCounts[i];
+        for (int i = 0; i < trucksByTransmission.length; i++) {
+            cargoByTransmission[i] += other.cargoByTransmission[i];
+            trucksByTransmission[i] += other.trucksByTransmission[i];
+        }
+        return this;
+    }
+
+    private int makeSlot(String make) {
+        Integer slot = makeIndex.get(make);
+        if (slot != null) return slot;
+        slot = makes.size();
+        makes.add(make);
+        makeIndex.put(make, slot);
+        if ((slot + 1) * TYPES > counts.length) {
+            int groups = counts.length * 2;
+            counts = Arrays.copyOf(counts, groups);
+            ageSums = Arrays.copyOf(ageSums, groups);
+            ageHistogram = Arrays.copyOf(ageHistogram, groups * AGE_BUCKETS);
+        }
+        return slot;
+    }
+
+    private static int ageBucket(int age) {
+        int bucket = 0;
+        while (bucket < AGE_LIMITS.length && age >= AGE_LIMITS[bucket]) bucket++;
+        return bucket;
+    }
+
+    // Index of the matching label (case-insensitive), or labels.length for anything else
+    private static int category(String value, String[] labels) {
+        if (value != null) {
+            // Vehicle strings are pooled, and the pool is seeded with these labels: exact matches are identical
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == value) return i;
+            }
+            String trimmed = value.trim();
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i].equalsIgnoreCase(trimmed)) return i;
+            }
+        }
+        return labels.length;
+    }
+
+    // --- Results ---
+
+    long count(String make, VehicleType type) {
+        Integer slot = makeIndex.get(make);
+        return slot == null ? 0 : counts[slot * TYPES + type.ordinal()];
+    }
+
+    long total() {
+        long total = 0;
+        for (int g = 0; g < makes.size() * TYPES; g++) total += counts[g];
+        return total;
+    }
+
+    /** @return cars per fuel type, with unrecognised values under "Other". */
+    Map<String, Long> fuelMix() {
+        Map<String, Long> mix = new LinkedHashMap<>();
+        for (int i = 0; i < FUEL_TYPES.length; i++) mix.put(FUEL_TYPES[i], fuelCounts[i]);
+        mix.put("Other", fuelCounts[FUEL_TYPES.length]);
+        return mix;
+    }
+
+    /** @return total truck cargo capacity (tons) per transmission, with unrecognised values under "Other". */
+    Map<String, Double> cargoByTransmission() {
+        Map<String, Double> cargo = new LinkedHashMap<>();
+        for (int i = 0; i < TRANSMISSIONS.length; i++) cargo.put(TRANSMISSIONS[i], cargoByTransmission[i]);
+        cargo.put("Other", cargoByTransmission[TRANSMISSIONS.length]);
+        return cargo;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Vehicles analysed: ").append(total()).append('\n');
+        sb.append(String.format("%-14s %-10s %8s %8s   Age distribution (%s)%n",
+                                "Make", "Type", "Count", "Avg Age", String.join(" / ", AGE_LABELS)));
+        List<String> sorted = new ArrayList<>(makes);
+        sorted.sort(String.CASE_INSENSITIVE_ORDER);
+        for (String make : sorted) {
+            int slot = makeIndex.get(make);
+            for (VehicleType type : VehicleType.values()) {
+                int group = slot * TYPES + type.ordinal();
+                if (counts[group] == 0) continue;
+                StringBuilder ages = new StringBuilder();
+                for (int b = 0; b < AGE_BUCKETS; b++) {
+                    if (b > 0) ages.append(" / ");
+                    ages.append(ageHistogram[group * AGE_BUCKETS + b]);
+                }
+                sb.append(String.format("%-14s %-10s %8d %8.1f   %s%n", make, type, counts[group],
+                                        (double) ageSums[group] / counts[group], ages));
+            }
+        }
+        sb.append("Car fuel mix: ").append(fuelMix()).append('\n');
+        sb.append("Truck cargo by transmission (tons): ");
+        for (int i = 0; i <= TRANSMISSIONS.length; i++) {
+            if (i > 0) sb.append(", ");
+            String label = i < TRANSMISSIONS.length ? TRANSMISSIONS[i] : "Other";
+            sb.append(String.format("%s=%.1f (%d trucks)", label, cargoByTransmission[i], trucksByTransmission[i]));
+        }
+        return sb.append('\n').toString();
+    }
+
+    /**
+     * Collector usable with both sequential and parallel streams.
+     */
+    static Collector<Vehicle, ?, FleetAnalytics> collector(int currentYear) {
+        return Collector.of(() -> new FleetAnalytics(currentYear), FleetAnalytics::accept, FleetAnalytics::combine,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Aggregates the fleet, optionally splitting the work across the common fork/join pool.
+     */
+    static FleetAnalytics of(List<Vehicle> fleet, int currentYear, boolean parallel) {
+        return (parallel ? fleet.parallelStream() : fleet.stream()).collect(collector(currentYear));
+    }
+}
+
+/**
+ * Compares the analytics pass with the straightforward stream version
+ * (instanceof chains and string group keys), and the chunked inventory
+ * listing with the original print-per-vehicle loop.
+ * Usage: {@code java -Xmx6g -cp /tmp/metrics VehicleInformationSystem.java --benchmark [vehicles] [rounds]}
+ * (defaults: 10,000,000 vehicles, 5 rounds).
+ */
+class FleetAnalyticsBenchmark {
+    private static final String[] MAKES = {"Toyota", "Ford", "Honda", "Volvo", "Tesla", "BMW", "Yamaha", "Scania",
+                                           "Ducati", "Nissan", "Kia", "MAN"};
+    private static final String[] FUELS = {"Petrol", "Diesel", "Electric", "Hybrid"};
+    private static final String[] STYLES = {"Sport", "Cruiser", "Off-road"};
+    private static final int YEAR = 2025;
+
+    static void run(String[] args) {
+        int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("Generating " + vehicles + " vehicles...");
+        List<Vehicle> fleet = generate(vehicles, 42L);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("Heap after generation: ~%d bytes per vehicle, %d pooled strings%n",
+                          (runtime.totalMemory() - runtime.freeMemory()) / Math.max(1, vehicles), VehicleStringPool.size());
+
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("\n--- Round " + round + " ---");
+            time("Grouping streams (instanceof)", () -> naive(fleet));
+            time("Single-pass sequential       ", () -> FleetAnalytics.of(fleet, YEAR, false).total());
+            time("Single-pass parallel         ", () -> FleetAnalytics.of(fleet, YEAR, true).total());
+            time("Listing, println per vehicle ", () -> printPerVehicle(fleet));
+            time("Listing, chunked renderer    ", () -> printChunked(fleet));
+        }
+    }
+
+    static List<Vehicle> generate(int vehicles, long seed) {
+        Random random = new Random(seed);
+        List<Vehicle> fleet = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            // Fresh strings per vehicle, as if parsed from input; the records pool them
+            String make = new String(MAKES[random.nextInt(MAKES.length)]);
+            String model = "Model " + (i & 7);
+            int year = YEAR - random.nextInt(30);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    fleet.add(Car.builder().make(make).model(model).year(year)
+                                 .numDoors(2 + 2 * random.nextInt(2))
+                                 .fuelType(new String(FUELS[random.nextInt(FUELS.length)]))
+                                 .build());
+                }
+                case 1 -> {
+                    fleet.add(Motorcycle.builder().make(make).model(model).year(year)
+                                 .numWheels(2)
+                                 .motorcycleType(new String(STYLES[random.nextInt(STYLES.length)]))
+                                 .build());
+                }
+                default -> {
+                    fleet.add(Truck.builder().make(make).model(model).year(year)
+                                 .cargoCapacity(1 + random.nextInt(40))
+                                 .transmissionType(new String(random.nextBoolean() ? "Manual" : "Automatic"))
+                                 .build());
+                }
+            }
+        }
+        return fleet;
+    }
+
+    // The same questions answered the obvious way, one stream per question
+    private static long naive(List<Vehicle> fleet) {
+        Map<String, Long> byMakeAndType = fleet.stream().collect(Collectors.groupingBy(
+            v -> v.getMake() + "/" + (v instanceof CarVehicle ? "Car" : v instanceof MotorVehicle ? "Motorcycle" : "Truck"),
+            Collectors.counting()));
+        Map<String, Double> avgAge = fleet.stream().collect(Collectors.groupingBy(
+            v -> v.getMake() + "/" + (v instanceof CarVehicle ? "Car" : v instanceof MotorVehicle ? "Motorcycle" : "Truck"),
+            Collectors.averagingInt(v -> YEAR - v.getYear())));
+        Map<String, Long> fuelMix = fleet.stream().filter(v -> v instanceof CarVehicle)
+            .collect(Collectors.groupingBy(v -> ((CarVehicle) v).getFuelType(), Collectors.counting()));
+        Map<String, Double> cargo = fleet.stream().filter(v -> v instanceof TruckVehicle).map(v -> (TruckVehicle) v)
+            .collect(Collectors.groupingBy(TruckVehicle::getTransmissionType,
+                                           Collectors.summingDouble(TruckVehicle::getCargoCapacity)));
+        return byMakeAndType.size() + avgAge.size() + fuelMix.size() + cargo.size();
+    }
+
+    // The original displayAllVehicles loop, into a discarding stream so only CPU and locking are measured
+    private static long printPerVehicle(List<Vehicle> fleet) {
+        PrintStream console = System.out;
+        CountingStream sink = new CountingStream();
+        System.setOut(new PrintStream(sink, true));
+        try {
+            for (int i = 0; i < fleet.size(); i++) {
+                System.out.print((i + 1) + ". ");
+                fleet.get(i).displayDetails();
+            }
+        } finally {
+            System.setOut(console);
+        }
+        return sink.bytes;
+    }
+
+    private static long printChunked(List<Vehicle> fleet) {
+        CountingStream sink = new CountingStream();
+        try {
+            Writer out = InventoryRenderer.consoleWriter(new PrintStream(sink, true));
+            InventoryRenderer.render(fleet, 0, fleet.size(), out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sink.bytes;
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long bytes;
+
+        @Override public void write(int b) { bytes++; }
+        @Override public void write(byte[] b, int off, int len) { bytes += len; }
+    }
+
+    private static void time(String label, LongSupplier task) {
+        long start = System.nanoTime();
+        long result = task.getAsLong();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%s: %6d ms (checksum %d)%n", label, elapsedMs, result);
     }
 }